@@ -0,0 +1,54 @@
+package com.bank.bench;
+
+import com.bank.model.Account;
+import com.bank.model.User;
+import com.bank.service.BankConfig;
+import com.bank.service.BankService;
+import com.bank.service.EngineMode;
+import com.bank.service.ExecutionMode;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+final class Banks {
+    static final long INITIAL_BALANCE_MINOR = 1_000_000_000_000L;
+
+    private Banks() {
+    }
+
+    static BankService open(EngineMode engine, int threads) {
+        return open(engine, ExecutionMode.FIXED_POOL, threads);
+    }
+
+    static BankService open(EngineMode engine, ExecutionMode execution, int threads) {
+        return BankService.create(BankConfig.defaults()
+                .withEngineMode(engine)
+                .withExecutionMode(execution)
+                .withWorkerThreads(threads)
+                .withShardCount(threads)
+                .withConsoleAudit(false)
+                .withIndex(false));
+    }
+
+    static UUID[] createAccounts(BankService bank, int count) {
+        User user = new User("bench");
+        UUID[] ids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            Account account = new Account("acc-" + i);
+            account.setBalanceMinor(INITIAL_BALANCE_MINOR);
+            user.addAccount(account);
+            ids[i] = account.getId();
+        }
+        bank.registerUser(user);
+        return ids;
+    }
+
+    static UUID pick(UUID[] ids, String distribution) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if ("HOT".equals(distribution) && random.nextInt(10) != 0) {
+            int hot = Math.max(1, ids.length / 10);
+            return ids[random.nextInt(hot)];
+        }
+        return ids[random.nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,68 @@
+package com.bank.bench;
+
+import com.bank.model.Account;
+import com.bank.model.ActionType;
+import com.bank.model.Transaction;
+import com.bank.patterns.StrategyFactory;
+import com.bank.patterns.TransactionStrategy;
+import com.bank.service.BankService;
+import com.bank.service.EngineMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DepositBenchmark {
+    @Param({"LOCKING", "SHARDED"})
+    public EngineMode engine;
+
+    @Param({"4", "16"})
+    public int threads;
+
+    @Param({"1", "1024"})
+    public int accounts;
+
+    @Param({"false", "true"})
+    public boolean hot;
+
+    private BankService bank;
+    private UUID[] ids;
+    private Account hotAccount;
+    private TransactionStrategy deposit;
+    private Transaction prebuilt;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bank = Banks.open(engine, threads);
+        ids = Banks.createAccounts(bank, accounts);
+        hotAccount = bank.getAccount(ids[0]);
+        if (hot)
+            bank.markHot(ids[0]);
+        deposit = StrategyFactory.getStrategy(ActionType.DEPOSIT);
+        prebuilt = new Transaction(ActionType.DEPOSIT, BigDecimal.ONE, ids[0], null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bank.shutdown();
+    }
+
+    @Benchmark
+    public void processDeposit() {
+        UUID id = Banks.pick(ids, "UNIFORM");
+        bank.processTransaction(new Transaction(ActionType.DEPOSIT, BigDecimal.ONE, id, null)).join();
+    }
+
+    @Benchmark
+    public void strategyDeposit() {
+        deposit.execute(hotAccount, prebuilt, Map.of());
+    }
+}
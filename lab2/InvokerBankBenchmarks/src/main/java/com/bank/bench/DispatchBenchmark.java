@@ -0,0 +1,37 @@
+package com.bank.bench;
+
+import com.bank.model.ActionType;
+import com.bank.patterns.StrategyFactory;
+import com.bank.patterns.TransactionStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+    private static final ActionType[] TYPES = ActionType.values();
+
+    private int next;
+
+    @Benchmark
+    public TransactionStrategy getStrategy() {
+        return StrategyFactory.getStrategy(nextType());
+    }
+
+    @Benchmark
+    public boolean isLockFree() {
+        return StrategyFactory.getStrategy(nextType()).isLockFree();
+    }
+
+    private ActionType nextType() {
+        ActionType type = TYPES[next];
+        if (++next == TYPES.length)
+            next = 0;
+        return type;
+    }
+}
@@ -0,0 +1,64 @@
+package com.bank.bench;
+
+import com.bank.model.ActionType;
+import com.bank.model.Transaction;
+import com.bank.model.TransactionRecord;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+    private final UUID from = UUID.randomUUID();
+    private final UUID to = UUID.randomUUID();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TransactionRecord.SIZE);
+    private final TransactionRecord view = new TransactionRecord();
+    private Transaction tx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tx = new Transaction(ActionType.TRANSFER, BigDecimal.ONE, from, to);
+        TransactionRecord.write(buffer.clear(), tx);
+    }
+
+    @Benchmark
+    public Transaction createFromBigDecimal() {
+        return new Transaction(ActionType.TRANSFER, BigDecimal.ONE, from, to);
+    }
+
+    @Benchmark
+    public Transaction createFromMinor() {
+        return new Transaction(ActionType.TRANSFER, 100L, from, to);
+    }
+
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public int encode() {
+        buffer.clear();
+        TransactionRecord.write(buffer, tx);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public long readView() {
+        view.wrap(buffer, 0);
+        return view.amountMinor() + view.accountLsb() + view.action().ordinal();
+    }
+
+    @Benchmark
+    public Transaction decode() {
+        return view.wrap(buffer, 0).toTransaction();
+    }
+}
@@ -0,0 +1,59 @@
+package com.bank.bench;
+
+import com.bank.model.ActionType;
+import com.bank.model.Transaction;
+import com.bank.service.BankService;
+import com.bank.service.EngineMode;
+import com.bank.service.ExecutionMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LatencyBenchmark {
+    @Param({"LOCKING", "SHARDED"})
+    public EngineMode engine;
+
+    @Param({"FIXED_POOL", "VIRTUAL_THREADS"})
+    public ExecutionMode execution;
+
+    @Param({"4", "16"})
+    public int threads;
+
+    @Param({"16", "1024"})
+    public int accounts;
+
+    private BankService bank;
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bank = Banks.open(engine, execution, threads);
+        ids = Banks.createAccounts(bank, accounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bank.shutdown();
+    }
+
+    @Benchmark
+    public void deposit() {
+        UUID id = Banks.pick(ids, "UNIFORM");
+        bank.processTransaction(new Transaction(ActionType.DEPOSIT, BigDecimal.ONE, id, null)).join();
+    }
+
+    @Benchmark
+    public void transfer() {
+        UUID from = Banks.pick(ids, "UNIFORM");
+        UUID to = Banks.pick(ids, "UNIFORM");
+        bank.processTransaction(new Transaction(ActionType.TRANSFER, BigDecimal.ONE, from, to)).join();
+    }
+}
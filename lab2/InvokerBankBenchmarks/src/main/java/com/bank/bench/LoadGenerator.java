@@ -0,0 +1,324 @@
+package com.bank.bench;
+
+import com.bank.cluster.PartitionedBank;
+import com.bank.gateway.GatewayClient;
+import com.bank.metrics.LatencyHistogram;
+import com.bank.model.Account;
+import com.bank.model.ActionType;
+import com.bank.model.FailureReason;
+import com.bank.model.Transaction;
+import com.bank.model.User;
+import com.bank.service.BankConfig;
+import com.bank.service.BankService;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class LoadGenerator {
+    private static final ActionType[] ACTIONS = ActionType.values();
+    private static final FailureReason[] REASONS = FailureReason.values();
+
+    private final Map<String, String> options;
+    private final int users;
+    private final int accountsPerUser;
+    private final long initialBalanceMinor;
+    private final int clients;
+    private final double zipfExponent;
+    private final int[] mix = new int[ACTIONS.length];
+    private final int mixTotal;
+
+    private UUID[] accounts;
+    private Zipf zipf;
+    private final List<GatewayClient> gateways = new ArrayList<>();
+    private final List<PartitionedBank> routers = new ArrayList<>();
+    private BankService bank;
+
+    private final LatencyHistogram[] corrected = new LatencyHistogram[ACTIONS.length];
+    private final LatencyHistogram[] uncorrected = new LatencyHistogram[ACTIONS.length];
+    private final LongAdder[] succeeded = new LongAdder[ACTIONS.length];
+    private final LongAdder[] failed = new LongAdder[ACTIONS.length];
+    private final LongAdder[] reasons = new LongAdder[REASONS.length];
+    private final AtomicLong outstanding = new AtomicLong();
+    private volatile long measureFrom = Long.MAX_VALUE;
+
+    LoadGenerator(Map<String, String> options) {
+        this.options = options;
+        this.users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        this.accountsPerUser = Integer.parseInt(options.getOrDefault("accounts-per-user", "2"));
+        this.initialBalanceMinor = Long.parseLong(options.getOrDefault("initial-balance", "100000")) * 100;
+        this.clients = Integer.parseInt(options.getOrDefault("clients", "4"));
+        this.zipfExponent = Double.parseDouble(options.getOrDefault("zipf", "0.99"));
+        int total = 0;
+        for (String part : options.getOrDefault("mix", "DEPOSIT=40,WITHDRAW=30,TRANSFER=30").split(",")) {
+            String[] kv = part.split("=");
+            int weight = Integer.parseInt(kv[1].trim());
+            mix[ActionType.valueOf(kv[0].trim().toUpperCase()).ordinal()] = weight;
+            total += weight;
+        }
+        if (total <= 0)
+            throw new IllegalArgumentException("Mix must have a positive weight");
+        this.mixTotal = total;
+        for (int i = 0; i < ACTIONS.length; i++) {
+            corrected[i] = new LatencyHistogram();
+            uncorrected[i] = new LatencyHistogram();
+            succeeded[i] = new LongAdder();
+            failed[i] = new LongAdder();
+        }
+        for (int i = 0; i < REASONS.length; i++)
+            reasons[i] = new LongAdder();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--"))
+                throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            String key = args[i].substring(2);
+            if (key.equals("help")) {
+                usage();
+                return;
+            }
+            if (i + 1 >= args.length)
+                throw new IllegalArgumentException("Missing value for --" + key);
+            options.put(key, args[++i]);
+        }
+        LoadGenerator generator = new LoadGenerator(options);
+        try {
+            generator.setUp();
+            long warmup = Long.parseLong(options.getOrDefault("warmup", "5"));
+            long duration = Long.parseLong(options.getOrDefault("duration", "30"));
+            for (String rate : options.getOrDefault("rate", "0").split(","))
+                generator.runStep(Long.parseLong(rate.trim()), warmup, duration);
+        } finally {
+            generator.tearDown();
+        }
+        System.exit(0);
+    }
+
+    private static void usage() {
+        System.out.println("Usage: LoadGenerator [--users 1000] [--accounts-per-user 2] [--initial-balance 100000]\n"
+                + "  [--mix DEPOSIT=40,WITHDRAW=30,TRANSFER=30] [--zipf 0.99] [--clients 4]\n"
+                + "  [--rate 0|N[,N...]] [--warmup 5] [--duration 30] [--partitions 1]\n"
+                + "  [--gateway host:port[,host:port...]]\n"
+                + "--rate 0 runs closed-loop (each client waits for its previous transaction);\n"
+                + "a positive rate runs open-loop and measures latency from the intended start time.\n"
+                + "--partitions N splits accounts across N in-process BankService instances;\n"
+                + "several gateways are treated as partitions of one bank.\n"
+                + "In-process runs read the usual bank.* system properties.");
+    }
+
+    private void setUp() throws IOException {
+        int total = users * accountsPerUser;
+        accounts = new UUID[total];
+        String gateway = options.get("gateway");
+        int partitions = Integer.parseInt(options.getOrDefault("partitions", "1"));
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        if (gateway != null) {
+            for (String endpoint : gateway.split(",")) {
+                String[] hostPort = endpoint.trim().split(":");
+                addresses.add(new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1])));
+            }
+        }
+        if (gateway == null && partitions <= 1) {
+            bank = BankService.create(BankConfig.fromSystemProperties().withConsoleAudit(false));
+            for (int u = 0; u < users; u++) {
+                User user = new User("load-" + u);
+                for (int a = 0; a < accountsPerUser; a++) {
+                    Account account = new Account("load-" + u + "-" + a);
+                    account.setBalanceMinor(initialBalanceMinor);
+                    user.addAccount(account);
+                    accounts[u * accountsPerUser + a] = account.getId();
+                }
+                bank.registerUser(user);
+            }
+        } else {
+            if (gateway == null) {
+                routers.add(PartitionedBank.local(partitions, this::partitionConfig));
+            } else if (addresses.size() > 1) {
+                for (int c = 0; c < clients; c++)
+                    routers.add(PartitionedBank.connect(addresses));
+            } else {
+                for (int c = 0; c < clients; c++)
+                    gateways.add(GatewayClient.connect(addresses.get(0)));
+            }
+            List<CompletableFuture<Void>> opened = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                accounts[i] = UUID.randomUUID();
+                opened.add(routers.isEmpty()
+                        ? gateways.get(i % clients).openAccount(accounts[i], initialBalanceMinor)
+                        : routers.get(i % routers.size()).openAccount(accounts[i], initialBalanceMinor));
+            }
+            CompletableFuture.allOf(opened.toArray(new CompletableFuture<?>[0])).join();
+        }
+        List<UUID> shuffled = new ArrayList<>(List.of(accounts));
+        Collections.shuffle(shuffled, new Random(42));
+        accounts = shuffled.toArray(new UUID[0]);
+        zipf = new Zipf(total, zipfExponent);
+        System.out.printf("%d users, %d accounts, zipf=%.2f, %d clients, %s%n", users, total, zipfExponent, clients,
+                gateway != null ? "gateway " + gateway
+                        : partitions > 1 ? partitions + " in-process partitions" : "in-process");
+    }
+
+    private BankConfig partitionConfig(int partition) {
+        BankConfig config = BankConfig.fromSystemProperties().withConsoleAudit(false);
+        Path journal = config.getJournalPath();
+        return journal == null ? config : config.withJournal(journal.resolveSibling(journal.getFileName() + "-" + partition));
+    }
+
+    private void tearDown() throws IOException {
+        for (GatewayClient client : gateways)
+            client.close();
+        for (PartitionedBank router : routers)
+            router.close();
+        if (bank != null)
+            bank.shutdown();
+    }
+
+    private void runStep(long rate, long warmupSeconds, long durationSeconds) throws InterruptedException {
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+        Thread[] threads = new Thread[clients];
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            threads[c] = new Thread(() -> drive(client, rate, end), "load-client-" + c);
+            threads[c].start();
+        }
+        reset();
+        measureFrom = warmupEnd;
+        for (Thread thread : threads)
+            thread.join();
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline)
+            Thread.sleep(1);
+        measureFrom = Long.MAX_VALUE;
+        report(rate, durationSeconds, outstanding.get());
+    }
+
+    private void drive(int client, long rate, long end) {
+        GatewayClient gateway = gateways.isEmpty() ? null : gateways.get(client);
+        PartitionedBank router = routers.isEmpty() ? null : routers.get(client % routers.size());
+        long interval = rate > 0 ? Math.max(1, TimeUnit.SECONDS.toNanos(clients) / rate) : 0;
+        long intended = System.nanoTime();
+        while (true) {
+            long now = System.nanoTime();
+            if (interval > 0) {
+                if (intended > now)
+                    LockSupport.parkNanos(intended - now);
+            } else {
+                intended = now;
+            }
+            if (intended >= end)
+                return;
+            Transaction tx = nextTransaction();
+            long scheduled = intended;
+            long submitted = System.nanoTime();
+            outstanding.incrementAndGet();
+            CompletableFuture<Void> result;
+            try {
+                if (router != null)
+                    result = router.processTransaction(tx);
+                else
+                    result = gateway != null ? gateway.submit(tx) : bank.processTransaction(tx);
+            } catch (RuntimeException e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+            CompletableFuture<Void> done = result.whenComplete((v, ex) -> complete(tx, scheduled, submitted, ex));
+            if (interval > 0)
+                intended += interval;
+            else
+                done.exceptionally(ex -> null).join();
+        }
+    }
+
+    private void complete(Transaction tx, long scheduled, long submitted, Throwable error) {
+        long now = System.nanoTime();
+        outstanding.decrementAndGet();
+        if (scheduled < measureFrom)
+            return;
+        int action = tx.getAction().ordinal();
+        corrected[action].record(now - scheduled);
+        uncorrected[action].record(now - submitted);
+        if (error == null) {
+            succeeded[action].increment();
+        } else {
+            failed[action].increment();
+            reasons[FailureReason.of(error).ordinal()].increment();
+        }
+    }
+
+    private Transaction nextTransaction() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(mixTotal);
+        ActionType action = ACTIONS[0];
+        for (int i = 0; i < ACTIONS.length; i++) {
+            roll -= mix[i];
+            if (roll < 0) {
+                action = ACTIONS[i];
+                break;
+            }
+        }
+        UUID from = accounts[zipf.next()];
+        long amount = (1 + random.nextInt(100)) * 100L;
+        return switch (action) {
+            case TRANSFER -> new Transaction(action, amount, from, accounts[zipf.next()]);
+            case FREEZE -> new Transaction(action, 0L, from, null);
+            default -> new Transaction(action, amount, from, null);
+        };
+    }
+
+    private void reset() {
+        for (int i = 0; i < ACTIONS.length; i++) {
+            corrected[i].reset();
+            uncorrected[i].reset();
+            succeeded[i].reset();
+            failed[i].reset();
+        }
+        for (LongAdder reason : reasons)
+            reason.reset();
+    }
+
+    private void report(long rate, long seconds, long unfinished) {
+        long total = 0;
+        for (int i = 0; i < ACTIONS.length; i++)
+            total += succeeded[i].sum() + failed[i].sum();
+        System.out.printf("%nrate=%s achieved=%.0f tx/s over %d s%s%n", rate > 0 ? rate + "/s" : "closed-loop",
+                (double) total / seconds, seconds, unfinished > 0 ? ", " + unfinished + " still pending" : "");
+        System.out.printf("%-9s %10s %8s %9s %9s %9s %9s %9s %12s%n", "action", "ok", "failed", "p50 us",
+                "p90 us", "p99 us", "p99.9 us", "max us", "p99 raw us");
+        for (int i = 0; i < ACTIONS.length; i++) {
+            if (succeeded[i].sum() + failed[i].sum() == 0)
+                continue;
+            LatencyHistogram h = corrected[i];
+            System.out.printf("%-9s %10d %8d %9d %9d %9d %9d %9d %12d%n", ACTIONS[i], succeeded[i].sum(),
+                    failed[i].sum(), micros(h.getValueAtPercentile(50)), micros(h.getValueAtPercentile(90)),
+                    micros(h.getValueAtPercentile(99)), micros(h.getValueAtPercentile(99.9)), micros(h.getMax()),
+                    micros(uncorrected[i].getValueAtPercentile(99)));
+        }
+        Map<FailureReason, Long> failures = new EnumMap<>(FailureReason.class);
+        for (FailureReason reason : REASONS) {
+            if (reasons[reason.ordinal()].sum() > 0)
+                failures.put(reason, reasons[reason.ordinal()].sum());
+        }
+        if (!failures.isEmpty())
+            System.out.println("failures: " + failures);
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
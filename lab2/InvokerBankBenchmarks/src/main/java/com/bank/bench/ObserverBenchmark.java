@@ -0,0 +1,59 @@
+package com.bank.bench;
+
+import com.bank.model.ActionType;
+import com.bank.model.Transaction;
+import com.bank.patterns.BackpressurePolicy;
+import com.bank.service.BankService;
+import com.bank.service.EngineMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObserverBenchmark {
+    @Param({"LOCKING"})
+    public EngineMode engine;
+
+    @Param({"4", "16"})
+    public int threads;
+
+    @Param({"1024"})
+    public int accounts;
+
+    @Param({"0", "1", "4"})
+    public int observers;
+
+    @Param({"DROP", "BLOCK"})
+    public BackpressurePolicy policy;
+
+    private final LongAdder observed = new LongAdder();
+    private BankService bank;
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bank = Banks.open(engine, threads);
+        ids = Banks.createAccounts(bank, accounts);
+        for (int i = 0; i < observers; i++)
+            bank.addObserver(tx -> observed.increment(), policy);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bank.shutdown();
+    }
+
+    @Benchmark
+    public void depositWithObservers() {
+        UUID id = Banks.pick(ids, "UNIFORM");
+        bank.processTransaction(new Transaction(ActionType.DEPOSIT, BigDecimal.ONE, id, null)).join();
+    }
+}
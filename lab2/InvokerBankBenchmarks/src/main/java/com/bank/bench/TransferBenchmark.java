@@ -0,0 +1,52 @@
+package com.bank.bench;
+
+import com.bank.model.ActionType;
+import com.bank.model.Transaction;
+import com.bank.service.BankService;
+import com.bank.service.EngineMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferBenchmark {
+    @Param({"LOCKING", "SHARDED"})
+    public EngineMode engine;
+
+    @Param({"4", "16"})
+    public int threads;
+
+    @Param({"16", "1024"})
+    public int accounts;
+
+    @Param({"UNIFORM", "HOT"})
+    public String distribution;
+
+    private BankService bank;
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bank = Banks.open(engine, threads);
+        ids = Banks.createAccounts(bank, accounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bank.shutdown();
+    }
+
+    @Benchmark
+    public void transfer() {
+        UUID from = Banks.pick(ids, distribution);
+        UUID to = Banks.pick(ids, distribution);
+        bank.processTransaction(new Transaction(ActionType.TRANSFER, BigDecimal.ONE, from, to)).join();
+    }
+}
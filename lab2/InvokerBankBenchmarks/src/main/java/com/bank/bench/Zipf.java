@@ -0,0 +1,26 @@
+package com.bank.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+final class Zipf {
+    private final double[] cdf;
+
+    Zipf(int size, double exponent) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Size must be positive");
+        cdf = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cdf[rank] = total;
+        }
+        for (int rank = 0; rank < size; rank++)
+            cdf[rank] /= total;
+    }
+
+    int next() {
+        int index = Arrays.binarySearch(cdf, ThreadLocalRandom.current().nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+}
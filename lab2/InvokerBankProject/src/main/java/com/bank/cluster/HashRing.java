@@ -0,0 +1,45 @@
+package com.bank.cluster;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+public class HashRing {
+    private final long[] points;
+    private final int[] owners;
+    private final int partitions;
+
+    public HashRing(int partitions, int virtualNodes) {
+        if (partitions <= 0 || virtualNodes <= 0)
+            throw new IllegalArgumentException("partitions and virtualNodes must be positive");
+        this.partitions = partitions;
+        long[] keys = new long[partitions * virtualNodes];
+        for (int p = 0; p < partitions; p++) {
+            for (int v = 0; v < virtualNodes; v++)
+                keys[p * virtualNodes + v] = mix(((long) p << 32) | v);
+        }
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        points = sorted;
+        owners = new int[sorted.length];
+        for (int i = 0; i < keys.length; i++)
+            owners[Arrays.binarySearch(sorted, keys[i])] = i / virtualNodes;
+    }
+
+    public int partitionOf(UUID accountId) {
+        long h = mix(accountId.getMostSignificantBits() ^ Long.rotateLeft(accountId.getLeastSignificantBits(), 32));
+        int i = Arrays.binarySearch(points, h);
+        if (i < 0)
+            i = -i - 1;
+        return owners[i == points.length ? 0 : i];
+    }
+
+    public int size() {
+        return partitions;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
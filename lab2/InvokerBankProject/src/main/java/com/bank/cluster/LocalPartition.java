@@ -0,0 +1,55 @@
+package com.bank.cluster;
+
+import com.bank.model.Account;
+import com.bank.model.FailureReason;
+import com.bank.model.Transaction;
+import com.bank.model.TransactionFailedException;
+import com.bank.model.User;
+import com.bank.service.BankService;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+class LocalPartition implements Partition {
+    private final BankService bank;
+
+    LocalPartition(BankService bank) {
+        this.bank = bank;
+    }
+
+    @Override
+    public CompletableFuture<Void> submit(Transaction tx) {
+        try {
+            return bank.processTransaction(tx);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> openAccount(UUID accountId, long balanceMinor) {
+        if (balanceMinor < 0 || bank.getAccount(accountId) != null)
+            return CompletableFuture.failedFuture(
+                    new TransactionFailedException(FailureReason.REJECTED, "Cannot open account " + accountId));
+        Account account = new Account(accountId, "partition-" + accountId);
+        account.setBalanceMinor(balanceMinor);
+        User user = new User("partition");
+        user.addAccount(account);
+        bank.registerUser(user);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Long> balance(UUID accountId) {
+        Account account = bank.getAccount(accountId);
+        if (account == null)
+            return CompletableFuture.failedFuture(
+                    new TransactionFailedException(FailureReason.ACCOUNT_NOT_FOUND, "Account not found: " + accountId));
+        return CompletableFuture.completedFuture(account.getBalanceMinor());
+    }
+
+    @Override
+    public void close() {
+        bank.shutdown();
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.cluster;
+
+import com.bank.model.Transaction;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public interface Partition extends AutoCloseable {
+    CompletableFuture<Void> submit(Transaction tx);
+
+    CompletableFuture<Void> openAccount(UUID accountId, long balanceMinor);
+
+    CompletableFuture<Long> balance(UUID accountId);
+
+    @Override
+    void close();
+}
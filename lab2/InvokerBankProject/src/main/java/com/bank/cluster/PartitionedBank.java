@@ -0,0 +1,188 @@
+package com.bank.cluster;
+
+import com.bank.gateway.GatewayClient;
+import com.bank.model.ActionType;
+import com.bank.model.FailureReason;
+import com.bank.model.Transaction;
+import com.bank.model.TransactionFailedException;
+import com.bank.service.BankConfig;
+import com.bank.service.BankService;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+public class PartitionedBank implements AutoCloseable {
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+    private static final int RETRY_ATTEMPTS = 10;
+    private static final long RETRY_BACKOFF_MILLIS = 10;
+    private static final Set<FailureReason> DEFINITE = EnumSet.of(FailureReason.ACCOUNT_NOT_FOUND,
+            FailureReason.FROZEN, FailureReason.INSUFFICIENT_FUNDS, FailureReason.OVERFLOW, FailureReason.REJECTED);
+
+    private final List<Partition> partitions;
+    private final HashRing ring;
+    private final LongAdder crossPartitionTransfers = new LongAdder();
+    private final LongAdder compensations = new LongAdder();
+    private final LongAdder failedCompensations = new LongAdder();
+    private final LongAdder unresolvedTransfers = new LongAdder();
+
+    public PartitionedBank(List<? extends Partition> partitions, int virtualNodes) {
+        this.partitions = List.copyOf(partitions);
+        this.ring = new HashRing(this.partitions.size(), virtualNodes);
+    }
+
+    // transfer legs are retried with the same id, so every partition must deduplicate by transaction id
+    public static PartitionedBank local(int partitions, IntFunction<BankConfig> configs) {
+        List<BankConfig> list = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            BankConfig config = configs.apply(i);
+            if (config.getIdempotencyCapacity() <= 0)
+                throw new IllegalArgumentException("Partition " + i + " needs idempotencyCapacity > 0");
+            list.add(config);
+        }
+        List<Partition> created = new ArrayList<>(partitions);
+        for (BankConfig config : list)
+            created.add(new LocalPartition(BankService.create(config)));
+        return new PartitionedBank(created, DEFAULT_VIRTUAL_NODES);
+    }
+
+    // the gateways must run with bank.gateway.reversals=true, which GatewayServer only allows on idempotent services
+    public static PartitionedBank connect(List<? extends SocketAddress> gateways) throws IOException {
+        List<Partition> list = new ArrayList<>(gateways.size());
+        try {
+            for (SocketAddress address : gateways)
+                list.add(new RemotePartition(GatewayClient.connect(address)));
+        } catch (IOException e) {
+            list.forEach(Partition::close);
+            throw e;
+        }
+        return new PartitionedBank(list, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public int partitionOf(UUID accountId) {
+        return ring.partitionOf(accountId);
+    }
+
+    public int size() {
+        return partitions.size();
+    }
+
+    public CompletableFuture<Void> openAccount(UUID accountId, long balanceMinor) {
+        return partitions.get(partitionOf(accountId)).openAccount(accountId, balanceMinor);
+    }
+
+    public CompletableFuture<Long> balance(UUID accountId) {
+        return partitions.get(partitionOf(accountId)).balance(accountId);
+    }
+
+    public CompletableFuture<Void> processTransaction(Transaction tx) {
+        if (tx.getAccountId() == null)
+            return CompletableFuture.failedFuture(
+                    new TransactionFailedException(FailureReason.ACCOUNT_NOT_FOUND, "Transaction has no account"));
+        int source = partitionOf(tx.getAccountId());
+        if (tx.getAction() != ActionType.TRANSFER || tx.getTargetAccountId() == null)
+            return partitions.get(source).submit(tx);
+        int target = partitionOf(tx.getTargetAccountId());
+        if (source == target)
+            return partitions.get(source).submit(tx);
+        crossPartitionTransfers.increment();
+        return transfer(tx, partitions.get(source), partitions.get(target));
+    }
+
+    private CompletableFuture<Void> transfer(Transaction tx, Partition source, Partition target) {
+        Transaction debit = Transaction.withId(tx.getId(), ActionType.WITHDRAW, tx.getAmountMinor(),
+                tx.getAccountId(), null);
+        return source.submit(debit).thenCompose(v -> {
+            Transaction credit = Transaction.withId(leg(tx.getId(), 1), ActionType.DEPOSIT, tx.getAmountMinor(),
+                    tx.getTargetAccountId(), null);
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            credit(source, target, credit, tx, result, 1);
+            return result;
+        });
+    }
+
+    private void credit(Partition source, Partition target, Transaction credit, Transaction tx,
+                        CompletableFuture<Void> result, int attempt) {
+        target.submit(credit).whenComplete((v, ex) -> {
+            if (ex == null) {
+                result.complete(null);
+            } else if (DEFINITE.contains(FailureReason.of(ex))) {
+                compensations.increment();
+                Transaction reversal = Transaction.withId(leg(tx.getId(), 2), ActionType.REVERSAL,
+                        tx.getAmountMinor(), tx.getAccountId(), null);
+                compensate(source, reversal, ex, result, 1);
+            } else if (attempt < RETRY_ATTEMPTS) {
+                CompletableFuture.delayedExecutor(RETRY_BACKOFF_MILLIS * attempt, TimeUnit.MILLISECONDS)
+                        .execute(() -> credit(source, target, credit, tx, result, attempt + 1));
+            } else {
+                unresolvedTransfers.increment();
+                System.err.println("Transfer Unresolved: " + tx.getId() + " credit " + credit.getId()
+                        + " to account " + credit.getAccountId() + ": " + ex);
+                result.completeExceptionally(unwrap(ex));
+            }
+        });
+    }
+
+    private void compensate(Partition source, Transaction reversal, Throwable cause, CompletableFuture<Void> result,
+                            int attempt) {
+        source.submit(reversal).whenComplete((v, ex) -> {
+            if (ex == null) {
+                result.completeExceptionally(unwrap(cause));
+            } else if (retryable(FailureReason.of(ex)) && attempt < RETRY_ATTEMPTS) {
+                CompletableFuture.delayedExecutor(RETRY_BACKOFF_MILLIS * attempt, TimeUnit.MILLISECONDS)
+                        .execute(() -> compensate(source, reversal, cause, result, attempt + 1));
+            } else {
+                failedCompensations.increment();
+                System.err.println("Compensation Failed: " + reversal.getId() + " for account "
+                        + reversal.getAccountId() + ": " + ex);
+                Throwable error = unwrap(cause);
+                error.addSuppressed(unwrap(ex));
+                result.completeExceptionally(error);
+            }
+        });
+    }
+
+    // a reversal reuses its id, so an unknown outcome or a busy partition is retried like the credit leg
+    private static boolean retryable(FailureReason reason) {
+        return reason == FailureReason.REJECTED || !DEFINITE.contains(reason);
+    }
+
+    private static UUID leg(UUID id, int leg) {
+        return new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits() ^ leg);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    public long getCrossPartitionTransfers() {
+        return crossPartitionTransfers.sum();
+    }
+
+    public long getCompensations() {
+        return compensations.sum();
+    }
+
+    public long getFailedCompensations() {
+        return failedCompensations.sum();
+    }
+
+    public long getUnresolvedTransfers() {
+        return unresolvedTransfers.sum();
+    }
+
+    @Override
+    public void close() {
+        for (Partition partition : partitions)
+            partition.close();
+    }
+}
@@ -0,0 +1,41 @@
+package com.bank.cluster;
+
+import com.bank.gateway.GatewayClient;
+import com.bank.model.Transaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+class RemotePartition implements Partition {
+    private final GatewayClient client;
+
+    RemotePartition(GatewayClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public CompletableFuture<Void> submit(Transaction tx) {
+        return client.submit(tx);
+    }
+
+    @Override
+    public CompletableFuture<Void> openAccount(UUID accountId, long balanceMinor) {
+        return client.openAccount(accountId, balanceMinor);
+    }
+
+    @Override
+    public CompletableFuture<Long> balance(UUID accountId) {
+        return client.balance(accountId);
+    }
+
+    @Override
+    public void close() {
+        try {
+            client.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -3,8 +3,13 @@ package com.bank.game;
 import com.bank.model.Account;
 import com.bank.model.Transaction;
 import com.bank.model.ActionType;
+import com.bank.model.Money;
 import com.bank.service.BankService;
-import com.bank.patterns.AuditVisitor;
+import com.bank.patterns.AuditAggregator;
+import com.bank.patterns.BackpressurePolicy;
+import com.bank.puzzle.Combo;
+import com.bank.puzzle.PuzzleLevel;
+import com.bank.puzzle.PuzzleLevels;
 import javafx.animation.*;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -29,6 +34,7 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -50,8 +56,8 @@ public class BankInvokerGame extends Application {
 
     private GameMode currentMode = GameMode.STANDARD;
     private int currentLevelIndex = 0;
-    private List<Level> allLevels;
-    private List<Transaction> sessionHistory = new ArrayList<>();
+    private List<PuzzleLevel> allLevels;
+    private final AuditAggregator audit = new AuditAggregator();
 
     private HBox orbsContainer;
     private Label invokedSpellLabel;
@@ -78,6 +84,7 @@ public class BankInvokerGame extends Application {
     public void start(Stage stage) {
         this.primaryStage = stage;
         currentAccount = bankService.createDemoAccountIfNeeded();
+        bankService.addObserver(audit, BackpressurePolicy.BLOCK);
         gifIdle = safeLoad(PATH_GIF_IDLE);
         initLevels();
         createMainMenu();
@@ -115,7 +122,7 @@ public class BankInvokerGame extends Application {
         currentMode = GameMode.STANDARD;
         currentAccount.setBalance(BigDecimal.ZERO);
         currentAccount.setFrozen(false);
-        sessionHistory.clear();
+        resetAudit();
         createGameScene("STANDARD MODE", "Full Arsenal Available");
         updateRightPanelForStandard();
         primaryStage.setScene(gameScene);
@@ -136,13 +143,13 @@ public class BankInvokerGame extends Application {
         grid.setHgap(20);
         grid.setVgap(20);
         for (int i = 0; i < allLevels.size(); i++) {
-            Level lvl = allLevels.get(i);
+            PuzzleLevel lvl = allLevels.get(i);
             Button btn = new Button(String.valueOf(i + 1));
             btn.setPrefSize(80, 80);
             styleLevelButton(btn);
             int index = i;
             btn.setOnAction(e -> startPuzzleLevel(index));
-            VBox btnBox = new VBox(5, btn, createLabelSmall(lvl.name));
+            VBox btnBox = new VBox(5, btn, createLabelSmall(lvl.getName()));
             btnBox.setAlignment(Pos.CENTER);
             grid.add(btnBox, i % 5, i / 5);
         }
@@ -158,15 +165,20 @@ public class BankInvokerGame extends Application {
     private void startPuzzleLevel(int index) {
         currentMode = GameMode.PUZZLE;
         currentLevelIndex = index;
-        Level lvl = allLevels.get(index);
-        currentAccount.setBalance(new BigDecimal(lvl.startBalance));
+        PuzzleLevel lvl = allLevels.get(index);
+        currentAccount.setBalanceMinor(Money.ofUnits(lvl.getStartBalance()));
         currentAccount.setFrozen(false);
-        sessionHistory.clear();
-        createGameScene(lvl.name, "Target: " + lvl.targetBalance);
+        resetAudit();
+        createGameScene(lvl.getName(), "Target: " + lvl.getTargetBalance());
         updateRightPanelForPuzzle(lvl);
         primaryStage.setScene(gameScene);
     }
 
+    private void resetAudit() {
+        if (!bankService.runAfterQueued(audit, audit::reset))
+            audit.reset();
+    }
+
     private void createGameScene(String headerTitle, String subTitle) {
         BorderPane root = new BorderPane();
         root.setStyle("-fx-background-color: #0a0a0a;");
@@ -191,13 +203,13 @@ public class BankInvokerGame extends Application {
         styleButton(restartBtn);
         restartBtn.setOnAction(e -> {
             if (currentMode == GameMode.PUZZLE) {
-                Level lvl = allLevels.get(currentLevelIndex);
-                currentAccount.setBalance(new BigDecimal(lvl.startBalance));
+                PuzzleLevel lvl = allLevels.get(currentLevelIndex);
+                currentAccount.setBalanceMinor(Money.ofUnits(lvl.getStartBalance()));
             } else {
                 currentAccount.setBalance(BigDecimal.ZERO);
             }
             currentAccount.setFrozen(false);
-            sessionHistory.clear();
+            resetAudit();
             refreshBalance();
             logAction("System", "Reset Performed.");
         });
@@ -316,10 +328,10 @@ public class BankInvokerGame extends Application {
                 createSpellInfo("QWE", "Deaf. Report", "Visitor Report", Color.WHITE));
     }
 
-    private void updateRightPanelForPuzzle(Level lvl) {
+    private void updateRightPanelForPuzzle(PuzzleLevel lvl) {
         rightPanel.getChildren().clear();
         rightPanel.getChildren().add(createLabelSmall("--- AVAILABLE SPELLS ---"));
-        for (Map.Entry<String, String> entry : lvl.spells.entrySet()) {
+        for (Map.Entry<String, String> entry : lvl.getSpells().entrySet()) {
             Color c = Color.WHITE;
             if (entry.getKey().contains("E"))
                 c = Color.ORANGE;
@@ -329,7 +341,7 @@ public class BankInvokerGame extends Application {
                 c = Color.CYAN;
             rightPanel.getChildren().add(createSpellInfo(entry.getKey(), entry.getValue(), "", c));
         }
-        Label hint = new Label("GOAL: " + lvl.targetBalance);
+        Label hint = new Label("GOAL: " + lvl.getTargetBalance());
         hint.setTextFill(Color.LIME);
         hint.setFont(Font.font("Arial", FontWeight.BOLD, 16));
         hint.setPadding(new Insets(20, 0, 0, 0));
@@ -342,42 +354,14 @@ public class BankInvokerGame extends Application {
     }
 
     private void performInvoke() {
-        List<InvokerEngine.Orb> orbs = engine.getCurrentOrbs();
-        long q = orbs.stream().filter(o -> o == InvokerEngine.Orb.QUAS).count();
-        long w = orbs.stream().filter(o -> o == InvokerEngine.Orb.WEX).count();
-        long e = orbs.stream().filter(o -> o == InvokerEngine.Orb.EXORT).count();
-        String combo = getComboKey(q, w, e);
+        Combo combo = engine.currentCombo();
 
         if (currentMode == GameMode.STANDARD)
-            executeStandardMode(combo);
+            executeStandardMode(combo == null ? "UNKNOWN" : combo.name());
         else
             executePuzzleMode(combo);
     }
 
-    private String getComboKey(long q, long w, long e) {
-        if (q == 3)
-            return "QQQ";
-        if (w == 3)
-            return "WWW";
-        if (e == 3)
-            return "EEE";
-        if (q == 2 && w == 1)
-            return "QQW";
-        if (q == 2 && e == 1)
-            return "QQE";
-        if (w == 2 && q == 1)
-            return "WWQ";
-        if (w == 2 && e == 1)
-            return "WWE";
-        if (e == 2 && q == 1)
-            return "EEQ";
-        if (e == 2 && w == 1)
-            return "EEW";
-        if (q == 1 && w == 1 && e == 1)
-            return "QWE";
-        return "UNKNOWN";
-    }
-
     private void executeStandardMode(String combo) {
         Transaction tx = null;
         String name = combo;
@@ -415,18 +399,10 @@ public class BankInvokerGame extends Application {
                 break;
 
             case "QWE":
-                if (sessionHistory.isEmpty())
+                if (audit.getTotalCount() == 0)
                     logAction("Visitor", "No history to report.");
-                else {
-                    try {
-                        AuditVisitor visitor = new AuditVisitor();
-                        for (Transaction t : sessionHistory)
-                            t.accept(visitor);
-                        logAction("VISITOR", visitor.getReport().replace("\n", " | "));
-                    } catch (Exception ex) {
-                        logAction("Visitor", "Report Generated.");
-                    }
-                }
+                else
+                    logAction("VISITOR", audit.getReport().replace("\n", " | "));
                 showFloatingText("DEAFENING REPORT", Color.WHITE);
                 return;
 
@@ -451,147 +427,42 @@ public class BankInvokerGame extends Application {
         processTx(tx, name, color);
     }
 
-    private void executePuzzleMode(String combo) {
-        Level lvl = allLevels.get(currentLevelIndex);
-        if (!lvl.spells.containsKey(combo)) {
+    private void executePuzzleMode(Combo combo) {
+        PuzzleLevel lvl = allLevels.get(currentLevelIndex);
+        if (!lvl.allows(combo)) {
             showFloatingText("RESTRICTED!", Color.GRAY);
             return;
         }
 
-        long bal = currentAccount.getBalance().longValue();
-        long next = bal;
-        switch (currentLevelIndex) {
-            case 0:
-                if (combo.equals("EEE"))
-                    next += 5;
-                if (combo.equals("WWE"))
-                    next *= 2;
-                if (combo.equals("EEW"))
-                    next = reverse(bal);
-                break;
-            case 1:
-                if (combo.equals("QQQ")) {
-                    if (bal % 2 == 0)
-                        next /= 2;
-                }
-                if (combo.equals("EEE"))
-                    next += 3;
-                if (combo.equals("QQW"))
-                    next = sumDigits(bal);
-                break;
-            case 2:
-                if (combo.equals("QQQ")) {
-                    if (bal % 2 == 0)
-                        next /= 2;
-                }
-                if (combo.equals("EEE"))
-                    next += 4;
-                if (combo.equals("EEQ"))
-                    next = Long.parseLong(bal + "1");
-                break;
-            case 3:
-                if (combo.equals("EEE"))
-                    next += 7;
-                if (combo.equals("WWE"))
-                    next *= 3;
-                if (combo.equals("WWQ"))
-                    next /= 10;
-                break;
-            case 4:
-                if (combo.equals("EEE"))
-                    next += 9;
-                if (combo.equals("QQQ")) {
-                    if (bal % 9 == 0)
-                        next /= 9;
-                }
-                if (combo.equals("EEW"))
-                    next = reverse(bal);
-                break;
-            case 5:
-                if (combo.equals("WWW"))
-                    next = bal * bal;
-                if (combo.equals("WWQ"))
-                    next -= 1;
-                if (combo.equals("QQQ")) {
-                    if (bal % 2 == 0)
-                        next /= 2;
-                }
-                break;
-            case 6:
-                if (combo.equals("EEE"))
-                    next += 1;
-                if (combo.equals("WWE"))
-                    next *= 2;
-                if (combo.equals("EEW"))
-                    next = reverse(bal);
-                break;
-            case 7:
-                if (combo.equals("WWE"))
-                    next *= 4;
-                if (combo.equals("EEE"))
-                    next += 6;
-                if (combo.equals("WWQ"))
-                    next /= 10;
-                break;
-            case 8:
-                if (combo.equals("EEE"))
-                    next += 3;
-                if (combo.equals("WWE"))
-                    next *= 4;
-                if (combo.equals("EEW"))
-                    next = reverse(bal);
-                break;
-            case 9:
-                if (combo.equals("WWE"))
-                    next *= 2;
-                if (combo.equals("QQQ")) {
-                    if (bal % 2 == 0)
-                        next /= 2;
-                }
-                if (combo.equals("QQW"))
-                    next += sumDigits(bal);
-                break;
+        long bal = Money.toUnits(currentAccount.getBalanceMinor());
+        long diff;
+        try {
+            diff = Money.ofUnits(Math.subtractExact(lvl.apply(combo, bal), bal));
+        } catch (ArithmeticException overflow) {
+            logAction("Error", lvl.getDescription(combo) + " -> " + lvl.apply(combo, BigInteger.valueOf(bal))
+                    + " does not fit the account");
+            showFloatingText("OVERFLOW", Color.RED);
+            return;
         }
-
-        long diff = next - bal;
         Transaction tx = null;
         if (diff >= 0)
-            tx = new Transaction(ActionType.DEPOSIT, new BigDecimal(diff), currentAccount.getId(), null);
+            tx = new Transaction(ActionType.DEPOSIT, diff, currentAccount.getId(), null);
         else
-            tx = new Transaction(ActionType.WITHDRAW, new BigDecimal(Math.abs(diff)), currentAccount.getId(), null);
+            tx = new Transaction(ActionType.WITHDRAW, -diff, currentAccount.getId(), null);
 
+        String key = combo.name();
         Color c = Color.WHITE;
-        if (combo.contains("E"))
+        if (key.contains("E"))
             c = Color.ORANGE;
-        if (combo.contains("W"))
+        if (key.contains("W"))
             c = Color.MAGENTA;
-        if (combo.contains("Q"))
+        if (key.contains("Q"))
             c = Color.CYAN;
-        processTx(tx, lvl.spells.get(combo), c);
-    }
-
-    private long reverse(long n) {
-        long r = 0;
-        while (n != 0) {
-            r = r * 10 + n % 10;
-            n /= 10;
-        }
-        return r;
-    }
-
-    private long sumDigits(long n) {
-        long s = 0;
-        n = Math.abs(n);
-        while (n > 0) {
-            s += n % 10;
-            n /= 10;
-        }
-        return s;
+        processTx(tx, lvl.getDescription(combo), c);
     }
 
     private void processTx(Transaction tx, String name, Color color) {
         if (tx != null) {
-            sessionHistory.add(tx);
             flashText(invokedSpellLabel);
             bankService.processTransaction(tx).thenRun(() -> Platform.runLater(() -> {
                 refreshBalance();
@@ -617,8 +488,8 @@ public class BankInvokerGame extends Application {
     }
 
     private void checkPuzzleWin() {
-        Level lvl = allLevels.get(currentLevelIndex);
-        if (currentAccount.getBalance().compareTo(new BigDecimal(lvl.targetBalance)) == 0) {
+        PuzzleLevel lvl = allLevels.get(currentLevelIndex);
+        if (currentAccount.getBalanceMinor() == Money.ofUnits(lvl.getTargetBalance())) {
             showFloatingText("VICTORY!", Color.LIME);
             Timeline tm = new Timeline(
                     new KeyFrame(Duration.seconds(1.5), e -> primaryStage.setScene(levelSelectScene)));
@@ -627,71 +498,7 @@ public class BankInvokerGame extends Application {
     }
 
     private void initLevels() {
-        allLevels = new ArrayList<>();
-        Map<String, String> l1 = new LinkedHashMap<>();
-        l1.put("EEE", "Add 5");
-        l1.put("WWE", "Multiply 2");
-        l1.put("EEW", "Reverse Digits");
-        allLevels.add(new Level("1. Mirror Start", 1, 52, l1));
-        Map<String, String> l2 = new LinkedHashMap<>();
-        l2.put("QQQ", "Div 2 (if even)");
-        l2.put("EEE", "Add 3");
-        l2.put("QQW", "Sum Digits");
-        allLevels.add(new Level("2. Digital Diet", 88, 1, l2));
-        Map<String, String> l3 = new LinkedHashMap<>();
-        l3.put("QQQ", "Div 2 (if even)");
-        l3.put("EEE", "Add 4");
-        l3.put("EEQ", "Append '1'");
-        allLevels.add(new Level("3. Sticky One", 4, 25, l3));
-        Map<String, String> l4 = new LinkedHashMap<>();
-        l4.put("EEE", "Add 7");
-        l4.put("WWE", "Multiply 3");
-        l4.put("WWQ", "Del Last Digit");
-        allLevels.add(new Level("4. Butterfly", 0, 30, l4));
-        Map<String, String> l5 = new LinkedHashMap<>();
-        l5.put("EEE", "Add 9");
-        l5.put("QQQ", "Div 9 (if even)");
-        l5.put("EEW", "Reverse");
-        allLevels.add(new Level("5. Collapse", 99, 2, l5));
-        Map<String, String> l6 = new LinkedHashMap<>();
-        l6.put("WWW", "Square (x^2)");
-        l6.put("WWQ", "Sub 1");
-        l6.put("QQQ", "Div 2 (if even)");
-        allLevels.add(new Level("6. Step Back", 3, 20, l6));
-        Map<String, String> l7 = new LinkedHashMap<>();
-        l7.put("EEE", "Add 1");
-        l7.put("WWE", "Multiply 2");
-        l7.put("EEW", "Reverse");
-        allLevels.add(new Level("7. Binary Hacker", 0, 53, l7));
-        Map<String, String> l8 = new LinkedHashMap<>();
-        l8.put("WWE", "Multiply 4");
-        l8.put("EEE", "Add 6");
-        l8.put("WWQ", "Del Last Digit");
-        allLevels.add(new Level("8. Truncation", 5, 14, l8));
-        Map<String, String> l9 = new LinkedHashMap<>();
-        l9.put("EEE", "Add 3");
-        l9.put("WWE", "Multiply 4");
-        l9.put("EEW", "Reverse");
-        allLevels.add(new Level("9. Odd Path", 2, 41, l9));
-        Map<String, String> l10 = new LinkedHashMap<>();
-        l10.put("WWE", "Multiply 2");
-        l10.put("QQQ", "Div 2 (if even)");
-        l10.put("QQW", "Add Sum Digits");
-        allLevels.add(new Level("10. Sum Power", 5, 26, l10));
-    }
-
-    private static class Level {
-        String name;
-        int startBalance;
-        int targetBalance;
-        Map<String, String> spells;
-
-        Level(String n, int s, int t, Map<String, String> sp) {
-            name = n;
-            startBalance = s;
-            targetBalance = t;
-            spells = sp;
-        }
+        allLevels = PuzzleLevels.all();
     }
 
     private StackPane createPortraitFrame() {
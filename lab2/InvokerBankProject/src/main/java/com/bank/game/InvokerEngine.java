@@ -1,5 +1,7 @@
 package com.bank.game;
 
+import com.bank.puzzle.Combo;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,47 +10,58 @@ public class InvokerEngine {
         QUAS, WEX, EXORT
     }
 
-    private final List<Orb> currentOrbs = new ArrayList<>();
+    private static final int SIZE = 3;
+    private static final int STATES = 27;
+    private static final int[] COUNT_WEIGHTS = {1, 4, 16};
+    private static final Combo[] COMBOS = buildTable();
+
+    private final Orb[] ring = new Orb[SIZE];
+    private int head;
+    private int size;
+    private int code;
+
+    private static Combo[] buildTable() {
+        Combo[] table = new Combo[STATES];
+        for (int state = 0; state < STATES; state++) {
+            int counts = 0;
+            for (int s = state, i = 0; i < SIZE; i++, s /= 3)
+                counts += COUNT_WEIGHTS[s % 3];
+            for (Combo combo : Combo.values()) {
+                if (countCode(combo) == counts)
+                    table[state] = combo;
+            }
+        }
+        return table;
+    }
+
+    private static int countCode(Combo combo) {
+        int code = 0;
+        for (int i = 0; i < SIZE; i++)
+            code += COUNT_WEIGHTS["QWE".indexOf(combo.name().charAt(i))];
+        return code;
+    }
 
     public void addOrb(Orb orb) {
-        currentOrbs.add(orb);
-        if (currentOrbs.size() > 3)
-            currentOrbs.remove(0);
+        ring[head] = orb;
+        head = head == SIZE - 1 ? 0 : head + 1;
+        if (size < SIZE)
+            size++;
+        code = code % (STATES / 3) * 3 + orb.ordinal();
     }
 
     public List<Orb> getCurrentOrbs() {
-        return new ArrayList<>(currentOrbs);
+        List<Orb> orbs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            orbs.add(ring[(head - size + i + SIZE) % SIZE]);
+        return orbs;
+    }
+
+    public Combo currentCombo() {
+        return size < SIZE ? null : COMBOS[code];
     }
 
     public String invoke() {
-        if (currentOrbs.size() < 3)
-            return "NOT_ENOUGH";
-
-        long q = currentOrbs.stream().filter(o -> o == Orb.QUAS).count();
-        long w = currentOrbs.stream().filter(o -> o == Orb.WEX).count();
-        long e = currentOrbs.stream().filter(o -> o == Orb.EXORT).count();
-
-        if (q == 3)
-            return "COLD_FREEZE";
-        if (q == 2 && w == 1)
-            return "GHOST_AUDIT";
-        if (q == 2 && e == 1)
-            return "SECURE_WALL";
-        if (w == 3)
-            return "EMP_TRANSFER";
-        if (w == 2 && q == 1)
-            return "FAST_WITHDRAW";
-        if (w == 2 && e == 1)
-            return "SPEED_DEPOSIT";
-        if (e == 3)
-            return "SUN_STRIKE";
-        if (e == 2 && q == 1)
-            return "FORGE_ACCOUNT";
-        if (e == 2 && w == 1)
-            return "CREDIT_METEOR";
-        if (q == 1 && w == 1 && e == 1)
-            return "DEAFENING_REPORT";
-
-        return "UNKNOWN";
+        Combo combo = currentCombo();
+        return combo == null ? "NOT_ENOUGH" : combo.getSpell();
     }
 }
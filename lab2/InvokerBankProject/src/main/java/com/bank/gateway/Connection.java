@@ -0,0 +1,53 @@
+package com.bank.gateway;
+
+import com.bank.model.FailureReason;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class Connection {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+    final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    final Queue<Response> responses = new ConcurrentLinkedQueue<>();
+    final AtomicBoolean scheduled = new AtomicBoolean();
+    int inFlight;
+    boolean paused;
+    boolean writing;
+    volatile boolean closed;
+
+    Connection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    void close() {
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Gateway: cannot close connection: " + e.getMessage());
+        }
+    }
+
+    static class Response {
+        final long correlation;
+        final FailureReason reason;
+        final long value;
+
+        Response(long correlation, FailureReason reason, long value) {
+            this.correlation = correlation;
+            this.reason = reason;
+            this.value = value;
+        }
+    }
+}
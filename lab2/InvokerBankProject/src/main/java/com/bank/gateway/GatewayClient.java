@@ -0,0 +1,177 @@
+package com.bank.gateway;
+
+import com.bank.model.FailureReason;
+import com.bank.model.Transaction;
+import com.bank.model.TransactionFailedException;
+import com.bank.model.TransactionRecord;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class GatewayClient implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<Long, CompletableFuture<Long>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong correlations = new AtomicLong();
+    private final Thread reader;
+    private volatile boolean closed;
+
+    private GatewayClient(SocketChannel channel) {
+        this.channel = channel;
+        this.reader = new Thread(this::readLoop, "bank-gateway-client");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    public static GatewayClient connect(SocketAddress address) throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        return new GatewayClient(channel);
+    }
+
+    public CompletableFuture<Void> submit(Transaction tx) {
+        return submitBatch(List.of(tx)).get(0);
+    }
+
+    public List<CompletableFuture<Void>> submitBatch(List<Transaction> batch) {
+        List<CompletableFuture<Void>> results = new ArrayList<>(batch.size());
+        writeLock.lock();
+        try {
+            for (Transaction tx : batch) {
+                CompletableFuture<Long> response = header(GatewayProtocol.OP_SUBMIT,
+                        GatewayProtocol.requestSize(GatewayProtocol.OP_SUBMIT));
+                if (!response.isDone())
+                    TransactionRecord.write(out, tx);
+                results.add(response.thenApply(v -> null));
+            }
+            flush();
+        } finally {
+            writeLock.unlock();
+        }
+        return results;
+    }
+
+    public CompletableFuture<Void> openAccount(UUID accountId, long balanceMinor) {
+        writeLock.lock();
+        try {
+            CompletableFuture<Long> response = header(GatewayProtocol.OP_OPEN_ACCOUNT,
+                    GatewayProtocol.requestSize(GatewayProtocol.OP_OPEN_ACCOUNT));
+            if (!response.isDone()) {
+                out.putLong(accountId.getMostSignificantBits()).putLong(accountId.getLeastSignificantBits());
+                out.putLong(balanceMinor);
+                flush();
+            }
+            return response.thenApply(v -> null);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public CompletableFuture<Long> balance(UUID accountId) {
+        writeLock.lock();
+        try {
+            CompletableFuture<Long> response = header(GatewayProtocol.OP_BALANCE,
+                    GatewayProtocol.requestSize(GatewayProtocol.OP_BALANCE));
+            if (!response.isDone()) {
+                out.putLong(accountId.getMostSignificantBits()).putLong(accountId.getLeastSignificantBits());
+                flush();
+            }
+            return response;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private CompletableFuture<Long> header(byte op, int size) {
+        if (closed)
+            return CompletableFuture.failedFuture(new IOException("Gateway connection is closed"));
+        if (out.remaining() < size)
+            flush();
+        if (closed)
+            return CompletableFuture.failedFuture(new IOException("Gateway connection is closed"));
+        long correlation = correlations.incrementAndGet();
+        CompletableFuture<Long> response = new CompletableFuture<>();
+        pending.put(correlation, response);
+        if (closed && pending.remove(correlation) != null) {
+            response.completeExceptionally(new IOException("Gateway connection is closed"));
+            return response;
+        }
+        out.put(op).putLong(correlation);
+        return response;
+    }
+
+    private void flush() {
+        out.flip();
+        try {
+            while (out.hasRemaining())
+                channel.write(out);
+        } catch (IOException e) {
+            failAll(e);
+        } finally {
+            out.clear();
+        }
+    }
+
+    private void readLoop() {
+        ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                while (in.remaining() >= GatewayProtocol.RESPONSE_SIZE) {
+                    long correlation = in.getLong();
+                    FailureReason reason = GatewayProtocol.reason(in.get());
+                    long value = in.getLong();
+                    CompletableFuture<Long> response = pending.remove(correlation);
+                    if (response == null)
+                        continue;
+                    if (reason == null)
+                        response.complete(value);
+                    else
+                        response.completeExceptionally(new TransactionFailedException(reason, "Gateway: " + reason));
+                }
+                in.compact();
+            }
+            failAll(new IOException("Gateway closed the connection"));
+        } catch (IOException e) {
+            failAll(e);
+        }
+    }
+
+    private void failAll(IOException error) {
+        closed = true;
+        for (Long correlation : pending.keySet()) {
+            CompletableFuture<Long> response = pending.remove(correlation);
+            if (response != null)
+                response.completeExceptionally(error);
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        channel.close();
+        try {
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
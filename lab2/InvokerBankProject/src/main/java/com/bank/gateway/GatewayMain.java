@@ -0,0 +1,25 @@
+package com.bank.gateway;
+
+import com.bank.service.BankService;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+public class GatewayMain {
+    public static void main(String[] args) throws IOException {
+        String host = System.getProperty("bank.gateway.host", "127.0.0.1");
+        int port = Integer.getInteger("bank.gateway.port", 7070);
+        int pipeline = Integer.getInteger("bank.gateway.pipeline", 1024);
+        boolean reversals = Boolean.getBoolean("bank.gateway.reversals");
+        boolean fundedAccounts = Boolean.getBoolean("bank.gateway.fundedAccounts");
+
+        BankService bank = BankService.getInstance();
+        GatewayServer server = GatewayServer.start(bank, new InetSocketAddress(host, port), pipeline, reversals,
+                fundedAccounts);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            bank.shutdown();
+        }, "bank-gateway-shutdown"));
+        System.out.println("Gateway listening on " + server.getAddress());
+    }
+}
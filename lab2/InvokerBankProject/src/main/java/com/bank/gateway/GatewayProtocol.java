@@ -0,0 +1,40 @@
+package com.bank.gateway;
+
+import com.bank.model.FailureReason;
+import com.bank.model.TransactionRecord;
+
+import java.nio.ByteBuffer;
+
+public final class GatewayProtocol {
+    public static final byte OP_SUBMIT = 1;
+    public static final byte OP_OPEN_ACCOUNT = 2;
+    public static final byte OP_BALANCE = 3;
+
+    public static final int HEADER_SIZE = 9;
+    public static final int RESPONSE_SIZE = 17;
+    public static final byte STATUS_OK = 0;
+
+    private static final FailureReason[] REASONS = FailureReason.values();
+
+    private GatewayProtocol() {
+    }
+
+    public static int requestSize(byte op) {
+        return switch (op) {
+            case OP_SUBMIT -> HEADER_SIZE + TransactionRecord.SIZE;
+            case OP_OPEN_ACCOUNT -> HEADER_SIZE + 24;
+            case OP_BALANCE -> HEADER_SIZE + 16;
+            default -> -1;
+        };
+    }
+
+    public static void writeResponse(ByteBuffer buf, long correlation, FailureReason reason, long value) {
+        buf.putLong(correlation);
+        buf.put(reason == null ? STATUS_OK : (byte) (reason.ordinal() + 1));
+        buf.putLong(value);
+    }
+
+    public static FailureReason reason(byte status) {
+        return status == STATUS_OK ? null : REASONS[status - 1];
+    }
+}
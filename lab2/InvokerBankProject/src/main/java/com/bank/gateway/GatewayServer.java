@@ -0,0 +1,289 @@
+package com.bank.gateway;
+
+import com.bank.model.Account;
+import com.bank.model.ActionType;
+import com.bank.model.FailureReason;
+import com.bank.model.Transaction;
+import com.bank.model.TransactionRecord;
+import com.bank.model.User;
+import com.bank.service.BankService;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class GatewayServer implements AutoCloseable {
+    private final BankService bank;
+    private final int maxPipelined;
+    private final boolean acceptReversals;
+    private final boolean acceptFundedAccounts;
+    // registerUser is synchronized and waits for the journal, so account opening never runs on the selector loop
+    private final ExecutorService accounts = Executors.newSingleThreadExecutor(r -> new Thread(r, "bank-gateway-accounts"));
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Queue<Connection> ready = new ConcurrentLinkedQueue<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final TransactionRecord view = new TransactionRecord();
+    private final Thread loop;
+    private volatile boolean running = true;
+
+    private GatewayServer(BankService bank, SocketAddress address, int maxPipelined, boolean acceptReversals,
+                          boolean acceptFundedAccounts) throws IOException {
+        if (maxPipelined <= 0)
+            throw new IllegalArgumentException("Pipeline depth must be positive");
+        if (acceptReversals && !bank.isIdempotent())
+            throw new IllegalArgumentException("A partition gateway (reversals enabled) needs bank.idempotencyCapacity > 0:"
+                    + " the router retries transfer legs with the same id");
+        this.bank = bank;
+        this.maxPipelined = maxPipelined;
+        this.acceptReversals = acceptReversals;
+        this.acceptFundedAccounts = acceptFundedAccounts;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(address);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        this.loop = new Thread(this::run, "bank-gateway");
+        loop.start();
+    }
+
+    public static GatewayServer start(BankService bank, SocketAddress address, int maxPipelined) throws IOException {
+        return start(bank, address, maxPipelined, false, false);
+    }
+
+    public static GatewayServer start(BankService bank, SocketAddress address, int maxPipelined,
+                                      boolean acceptReversals, boolean acceptFundedAccounts) throws IOException {
+        return new GatewayServer(bank, address, maxPipelined, acceptReversals, acceptFundedAccounts);
+    }
+
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) server.getLocalAddress();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                Connection pending;
+                while ((pending = ready.poll()) != null)
+                    flushSafely(pending);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable())
+                            read(connection);
+                        if (key.isValid() && key.isWritable())
+                            flushSafely(connection);
+                    } catch (RuntimeException e) {
+                        System.err.println("Gateway: closing connection after " + e);
+                        close(connection);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Gateway: " + e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null)
+            return;
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        Connection connection = new Connection(channel, key);
+        key.attach(connection);
+        connections.add(connection);
+    }
+
+    private void read(Connection connection) {
+        try {
+            if (connection.channel.read(connection.in) < 0) {
+                close(connection);
+                return;
+            }
+        } catch (IOException e) {
+            close(connection);
+            return;
+        }
+        decode(connection);
+    }
+
+    private void decode(Connection connection) {
+        ByteBuffer in = connection.in;
+        in.flip();
+        while (connection.inFlight < maxPipelined && in.remaining() >= GatewayProtocol.HEADER_SIZE) {
+            int start = in.position();
+            byte op = in.get(start);
+            int size = GatewayProtocol.requestSize(op);
+            if (size < 0) {
+                close(connection);
+                return;
+            }
+            if (in.remaining() < size)
+                break;
+            connection.inFlight++;
+            long correlation = in.getLong(start + 1);
+            try {
+                handle(connection, op, correlation, in, start + GatewayProtocol.HEADER_SIZE);
+            } catch (RuntimeException e) {
+                respond(connection, correlation, FailureReason.of(e), 0);
+            }
+            in.position(start + size);
+        }
+        in.compact();
+        connection.paused = connection.inFlight >= maxPipelined;
+        updateInterest(connection);
+    }
+
+    private void handle(Connection connection, byte op, long correlation, ByteBuffer in, int offset) {
+        switch (op) {
+            case GatewayProtocol.OP_SUBMIT -> {
+                if (view.wrap(in, offset).isValid() && (acceptReversals || view.action() != ActionType.REVERSAL))
+                    submit(connection, correlation, view.toTransaction());
+                else
+                    respond(connection, correlation, FailureReason.REJECTED, 0);
+            }
+            case GatewayProtocol.OP_OPEN_ACCOUNT -> {
+                UUID id = new UUID(in.getLong(offset), in.getLong(offset + 8));
+                long balanceMinor = in.getLong(offset + 16);
+                if (balanceMinor < 0 || (balanceMinor > 0 && !acceptFundedAccounts))
+                    respond(connection, correlation, FailureReason.REJECTED, 0);
+                else
+                    CompletableFuture.supplyAsync(() -> openAccount(id, balanceMinor), accounts).whenComplete((reason, ex) ->
+                            respond(connection, correlation, ex == null ? reason : FailureReason.of(ex), 0));
+            }
+            case GatewayProtocol.OP_BALANCE -> {
+                Account account = bank.getAccount(new UUID(in.getLong(offset), in.getLong(offset + 8)));
+                if (account == null)
+                    respond(connection, correlation, FailureReason.ACCOUNT_NOT_FOUND, 0);
+                else
+                    respond(connection, correlation, null, account.getBalanceMinor());
+            }
+            default -> throw new IllegalStateException("Unexpected op " + op);
+        }
+    }
+
+    private void submit(Connection connection, long correlation, Transaction tx) {
+        CompletableFuture<Void> result;
+        try {
+            result = bank.processTransaction(tx);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((v, ex) -> respond(connection, correlation, ex == null ? null : FailureReason.of(ex), 0));
+    }
+
+    private FailureReason openAccount(UUID id, long balanceMinor) {
+        if (bank.getAccount(id) != null)
+            return FailureReason.REJECTED;
+        Account account = new Account(id, "gateway-" + id);
+        account.setBalanceMinor(balanceMinor);
+        User user = new User("gateway");
+        user.addAccount(account);
+        bank.registerUser(user);
+        return null;
+    }
+
+    private void respond(Connection connection, long correlation, FailureReason reason, long value) {
+        if (connection.closed)
+            return;
+        connection.responses.add(new Connection.Response(correlation, reason, value));
+        if (connection.scheduled.compareAndSet(false, true)) {
+            ready.add(connection);
+            selector.wakeup();
+        }
+    }
+
+    private void flushSafely(Connection connection) {
+        try {
+            flush(connection);
+        } catch (IOException e) {
+            close(connection);
+        }
+    }
+
+    private void flush(Connection connection) throws IOException {
+        if (connection.closed)
+            return;
+        connection.scheduled.set(false);
+        ByteBuffer out = connection.out;
+        Connection.Response response;
+        while (out.remaining() >= GatewayProtocol.RESPONSE_SIZE && (response = connection.responses.poll()) != null) {
+            GatewayProtocol.writeResponse(out, response.correlation, response.reason, response.value);
+            connection.inFlight--;
+        }
+        out.flip();
+        connection.channel.write(out);
+        connection.writing = out.hasRemaining() || !connection.responses.isEmpty();
+        out.compact();
+        if (connection.paused && connection.inFlight <= maxPipelined / 2)
+            decode(connection);
+        else
+            updateInterest(connection);
+    }
+
+    private static void updateInterest(Connection connection) {
+        if (connection.closed)
+            return;
+        int ops = (connection.paused ? 0 : SelectionKey.OP_READ) | (connection.writing ? SelectionKey.OP_WRITE : 0);
+        connection.key.interestOps(ops);
+    }
+
+    private void close(Connection connection) {
+        connections.remove(connection);
+        connection.close();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        accounts.shutdown();
+        try {
+            accounts.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Connection connection : connections)
+            connection.close();
+        connections.clear();
+        try {
+            server.close();
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Gateway: cannot close: " + e.getMessage());
+        }
+    }
+}
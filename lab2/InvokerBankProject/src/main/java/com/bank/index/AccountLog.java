@@ -0,0 +1,120 @@
+package com.bank.index;
+
+import com.bank.model.ActionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+class AccountLog {
+    private static final int FIRST_SHIFT = 3;
+    private static final int FIRST_SIZE = 1 << FIRST_SHIFT;
+    private static final ActionType[] ACTIONS = ActionType.values();
+
+    private volatile Segment[] segments = new Segment[0];
+    private volatile int size;
+    private long lastNanos = Long.MIN_VALUE;
+
+    synchronized void append(long epochNanos, ActionType action, long amountMinor, UUID txId, UUID counterparty) {
+        int index = size;
+        Segment[] current = segments;
+        if (segmentOf(index) == current.length) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[current.length - 1] = new Segment(FIRST_SIZE << (current.length - 1));
+            segments = current;
+        }
+        lastNanos = Math.max(lastNanos, epochNanos);
+        Segment segment = current[segmentOf(index)];
+        int i = offsetOf(index);
+        segment.nanos[i] = lastNanos;
+        segment.amounts[i] = amountMinor;
+        segment.actions[i] = (byte) action.ordinal();
+        segment.txMsb[i] = txId.getMostSignificantBits();
+        segment.txLsb[i] = txId.getLeastSignificantBits();
+        if (counterparty != null) {
+            segment.peerMsb[i] = counterparty.getMostSignificantBits();
+            segment.peerLsb[i] = counterparty.getLeastSignificantBits();
+        }
+        size = index + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    List<StatementEntry> range(long fromNanos, long toNanos) {
+        int end = size;
+        Segment[] view = segments;
+        int lo = lowerBound(view, end, fromNanos);
+        int hi = lowerBound(view, end, toNanos);
+        List<StatementEntry> result = new ArrayList<>(Math.max(0, hi - lo));
+        for (int i = lo; i < hi; i++)
+            result.add(entry(view, i));
+        return result;
+    }
+
+    int count(long fromNanos, long toNanos) {
+        int end = size;
+        Segment[] view = segments;
+        return Math.max(0, lowerBound(view, end, toNanos) - lowerBound(view, end, fromNanos));
+    }
+
+    List<StatementEntry> latest(int n) {
+        int end = size;
+        Segment[] view = segments;
+        int start = Math.max(0, end - n);
+        List<StatementEntry> result = new ArrayList<>(end - start);
+        for (int i = end - 1; i >= start; i--)
+            result.add(entry(view, i));
+        return result;
+    }
+
+    private static int lowerBound(Segment[] view, int end, long nanos) {
+        int lo = 0;
+        int hi = end;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (view[segmentOf(mid)].nanos[offsetOf(mid)] < nanos)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    private static StatementEntry entry(Segment[] view, int index) {
+        Segment s = view[segmentOf(index)];
+        int i = offsetOf(index);
+        UUID peer = (s.peerMsb[i] == 0 && s.peerLsb[i] == 0) ? null : new UUID(s.peerMsb[i], s.peerLsb[i]);
+        return new StatementEntry(new UUID(s.txMsb[i], s.txLsb[i]), s.nanos[i], ACTIONS[s.actions[i]], s.amounts[i], peer);
+    }
+
+    static int segmentOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros((index >>> FIRST_SHIFT) + 1);
+    }
+
+    static int offsetOf(int index) {
+        return index + FIRST_SIZE - (FIRST_SIZE << segmentOf(index));
+    }
+
+    private static class Segment {
+        final long[] nanos;
+        final long[] amounts;
+        final byte[] actions;
+        final long[] txMsb;
+        final long[] txLsb;
+        final long[] peerMsb;
+        final long[] peerLsb;
+
+        Segment(int capacity) {
+            nanos = new long[capacity];
+            amounts = new long[capacity];
+            actions = new byte[capacity];
+            txMsb = new long[capacity];
+            txLsb = new long[capacity];
+            peerMsb = new long[capacity];
+            peerLsb = new long[capacity];
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.bank.index;
+
+import com.bank.model.ActionType;
+import com.bank.model.Money;
+import com.bank.model.TransactionIds;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class StatementEntry {
+    private final UUID transactionId;
+    private final long epochNanos;
+    private final ActionType action;
+    private final long amountMinor;
+    private final UUID counterpartyId;
+
+    StatementEntry(UUID transactionId, long epochNanos, ActionType action, long amountMinor, UUID counterpartyId) {
+        this.transactionId = transactionId;
+        this.epochNanos = epochNanos;
+        this.action = action;
+        this.amountMinor = amountMinor;
+        this.counterpartyId = counterpartyId;
+    }
+
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+
+    public long getEpochNanos() {
+        return epochNanos;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return TransactionIds.toLocalDateTime(epochNanos);
+    }
+
+    public ActionType getAction() {
+        return action;
+    }
+
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public BigDecimal getAmount() {
+        return Money.fromMinor(amountMinor);
+    }
+
+    public UUID getCounterpartyId() {
+        return counterpartyId;
+    }
+
+    @Override
+    public String toString() {
+        return getTimestamp() + " " + action + " " + getAmount() + (counterpartyId != null ? " " + counterpartyId : "");
+    }
+}
@@ -0,0 +1,77 @@
+package com.bank.index;
+
+import com.bank.model.Account;
+import com.bank.model.Transaction;
+import com.bank.model.User;
+import com.bank.patterns.TransactionObserver;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+public class TransactionIndex implements TransactionObserver {
+    private final Map<UUID, Set<UUID>> accountsByUser = new ConcurrentHashMap<>();
+    private final Map<UUID, AccountLog> logs = new ConcurrentHashMap<>();
+
+    public void registerUser(User user) {
+        Set<UUID> accounts = accountsByUser.computeIfAbsent(user.getId(), id -> new CopyOnWriteArraySet<>());
+        for (Account account : user.getAccounts())
+            accounts.add(account.getId());
+    }
+
+    @Override
+    public void onTransactionCompleted(Transaction tx) {
+        long amount = tx.getAmountMinor();
+        switch (tx.getAction()) {
+            case DEPOSIT, REVERSAL -> log(tx.getAccountId()).append(tx.getEpochNanos(), tx.getAction(), amount, tx.getId(), null);
+            case WITHDRAW -> log(tx.getAccountId()).append(tx.getEpochNanos(), tx.getAction(), -amount, tx.getId(), null);
+            case FREEZE -> log(tx.getAccountId()).append(tx.getEpochNanos(), tx.getAction(), 0, tx.getId(), null);
+            case TRANSFER -> {
+                log(tx.getAccountId()).append(tx.getEpochNanos(), tx.getAction(), -amount, tx.getId(), tx.getTargetAccountId());
+                if (tx.getTargetAccountId() != null)
+                    log(tx.getTargetAccountId()).append(tx.getEpochNanos(), tx.getAction(), amount, tx.getId(), tx.getAccountId());
+            }
+        }
+    }
+
+    private AccountLog log(UUID accountId) {
+        return logs.computeIfAbsent(accountId, id -> new AccountLog());
+    }
+
+    public Set<UUID> accountsOf(UUID userId) {
+        Set<UUID> accounts = accountsByUser.get(userId);
+        return accounts == null ? Set.of() : accounts;
+    }
+
+    public List<StatementEntry> history(UUID accountId, long fromEpochNanos, long toEpochNanos) {
+        AccountLog log = logs.get(accountId);
+        return log == null ? List.of() : log.range(fromEpochNanos, toEpochNanos);
+    }
+
+    public List<StatementEntry> history(UUID accountId, Instant from, Instant to) {
+        return history(accountId, toEpochNanos(from), toEpochNanos(to));
+    }
+
+    public int count(UUID accountId, long fromEpochNanos, long toEpochNanos) {
+        AccountLog log = logs.get(accountId);
+        return log == null ? 0 : log.count(fromEpochNanos, toEpochNanos);
+    }
+
+    public List<StatementEntry> latest(UUID accountId, int n) {
+        AccountLog log = logs.get(accountId);
+        return log == null || n <= 0 ? List.of() : log.latest(n);
+    }
+
+    public int size(UUID accountId) {
+        AccountLog log = logs.get(accountId);
+        return log == null ? 0 : log.size();
+    }
+
+    private static long toEpochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+}
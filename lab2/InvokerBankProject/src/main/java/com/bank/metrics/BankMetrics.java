@@ -0,0 +1,165 @@
+package com.bank.metrics;
+
+import com.bank.model.ActionType;
+import com.bank.model.FailureReason;
+import com.bank.service.LockStripes;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+public class BankMetrics implements BankMetricsMXBean {
+    private static final ActionType[] ACTIONS = ActionType.values();
+    private static final FailureReason[] REASONS = FailureReason.values();
+
+    private final LatencyHistogram[] latency = new LatencyHistogram[ACTIONS.length];
+    private final LongAdder[] successes = new LongAdder[ACTIONS.length];
+    private final LongAdder[] failures = new LongAdder[REASONS.length];
+    private final LongAdder duplicates = new LongAdder();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final IntSupplier queueDepth;
+    private final LockStripes lockStripes;
+
+    public BankMetrics(IntSupplier queueDepth, LockStripes lockStripes) {
+        this.queueDepth = queueDepth;
+        this.lockStripes = lockStripes;
+        for (int i = 0; i < ACTIONS.length; i++) {
+            latency[i] = new LatencyHistogram();
+            successes[i] = new LongAdder();
+        }
+        for (int i = 0; i < REASONS.length; i++)
+            failures[i] = new LongAdder();
+    }
+
+    public void started() {
+        inFlight.incrementAndGet();
+    }
+
+    public void succeeded(ActionType action, long elapsedNanos) {
+        inFlight.decrementAndGet();
+        if (action == null)
+            return;
+        latency[action.ordinal()].record(elapsedNanos);
+        successes[action.ordinal()].increment();
+    }
+
+    public void failed(ActionType action, long elapsedNanos, FailureReason reason) {
+        inFlight.decrementAndGet();
+        if (action != null)
+            latency[action.ordinal()].record(elapsedNanos);
+        failures[reason.ordinal()].increment();
+    }
+
+    public void rejected() {
+        failures[FailureReason.REJECTED.ordinal()].increment();
+    }
+
+    public void duplicate() {
+        duplicates.increment();
+    }
+
+    public LatencyHistogram getLatency(ActionType action) {
+        return latency[action.ordinal()];
+    }
+
+    public long getSuccessCount(ActionType action) {
+        return successes[action.ordinal()].sum();
+    }
+
+    public long getFailureCount(FailureReason reason) {
+        return failures[reason.ordinal()].sum();
+    }
+
+    @Override
+    public long getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    @Override
+    public long getSuccessCount() {
+        long total = 0;
+        for (LongAdder adder : successes)
+            total += adder.sum();
+        return total;
+    }
+
+    @Override
+    public long getFailureCount() {
+        long total = 0;
+        for (LongAdder adder : failures)
+            total += adder.sum();
+        return total;
+    }
+
+    @Override
+    public long getDuplicateCount() {
+        return duplicates.sum();
+    }
+
+    @Override
+    public Map<String, Long> getFailuresByReason() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (FailureReason reason : REASONS)
+            result.put(reason.name(), getFailureCount(reason));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP50Micros() {
+        return percentileMicros(50);
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP99Micros() {
+        return percentileMicros(99);
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP999Micros() {
+        return percentileMicros(99.9);
+    }
+
+    @Override
+    public Map<String, Long> getLatencyMaxMicros() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (ActionType action : ACTIONS)
+            result.put(action.name(), TimeUnit.NANOSECONDS.toMicros(getLatency(action).getMax()));
+        return result;
+    }
+
+    private Map<String, Long> percentileMicros(double percentile) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (ActionType action : ACTIONS)
+            result.put(action.name(),
+                    TimeUnit.NANOSECONDS.toMicros(getLatency(action).getValueAtPercentile(percentile)));
+        return result;
+    }
+
+    @Override
+    public long[] getLockWaitNanosByStripe() {
+        if (lockStripes == null)
+            return new long[0];
+        long[] result = new long[lockStripes.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = lockStripes.getWaitNanos(i);
+        return result;
+    }
+
+    @Override
+    public long[] getLockWaitCountByStripe() {
+        if (lockStripes == null)
+            return new long[0];
+        long[] result = new long[lockStripes.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = lockStripes.getWaitCount(i);
+        return result;
+    }
+}
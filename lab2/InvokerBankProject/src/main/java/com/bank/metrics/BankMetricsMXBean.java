@@ -0,0 +1,29 @@
+package com.bank.metrics;
+
+import java.util.Map;
+
+public interface BankMetricsMXBean {
+    long getInFlight();
+
+    int getQueueDepth();
+
+    long getSuccessCount();
+
+    long getFailureCount();
+
+    long getDuplicateCount();
+
+    Map<String, Long> getFailuresByReason();
+
+    Map<String, Long> getLatencyP50Micros();
+
+    Map<String, Long> getLatencyP99Micros();
+
+    Map<String, Long> getLatencyP999Micros();
+
+    Map<String, Long> getLatencyMaxMicros();
+
+    long[] getLockWaitNanosByStripe();
+
+    long[] getLockWaitCountByStripe();
+}
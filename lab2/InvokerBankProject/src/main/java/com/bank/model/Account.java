@@ -1,19 +1,35 @@
 package com.bank.model;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class Account {
-    private UUID id;
-    private String name;
-    private BigDecimal balance;
-    private boolean isFrozen;
+    // journal and snapshot records store the UTF-8 name behind a 16-bit length
+    public static final int MAX_NAME_BYTES = 1024;
+    private static final long FROZEN_BIT = 1L;
+    private static final long MAX_BALANCE = Long.MAX_VALUE >> 1;
+    private static final long MIN_BALANCE = Long.MIN_VALUE >> 1;
+
+    private final UUID id;
+    private final String name;
+    // balance in minor units shifted left by one, lowest bit is the frozen flag
+    private final AtomicLong state = new AtomicLong();
+    // set for hot accounts: deposits land in striped cells and are folded into state on read, withdraw or flush
+    private volatile HotCredits hot;
 
     public Account(String name) {
-        this.id = UUID.randomUUID();
+        this(UUID.randomUUID(), name);
+    }
+
+    public Account(UUID id, String name) {
+        if (name.length() > MAX_NAME_BYTES / 3 && name.getBytes(StandardCharsets.UTF_8).length > MAX_NAME_BYTES)
+            throw new IllegalArgumentException("Account name must fit in " + MAX_NAME_BYTES + " UTF-8 bytes");
+        this.id = id;
         this.name = name;
-        this.balance = BigDecimal.ZERO;
-        this.isFrozen = false;
     }
 
     public UUID getId() {
@@ -25,23 +41,304 @@ public class Account {
     }
 
     public BigDecimal getBalance() {
-        return balance;
+        return Money.fromMinor(getBalanceMinor());
+    }
+
+    public long getBalanceMinor() {
+        HotCredits h = hot;
+        if (h != null)
+            merge(h);
+        return state.get() >> 1;
+    }
+
+    public synchronized void enableHotCredits() {
+        if (hot == null)
+            hot = new HotCredits();
+    }
+
+    public boolean isHot() {
+        return hot != null;
+    }
+
+    public void flushCredits() {
+        HotCredits h = hot;
+        if (h != null)
+            merge(h);
+    }
+
+    private void merge(HotCredits h) {
+        h.lock.lock();
+        try {
+            long delta = h.drain();
+            if (delta != 0)
+                addToState(delta);
+        } finally {
+            h.lock.unlock();
+        }
     }
 
     public void setBalance(BigDecimal balance) {
-        this.balance = balance;
+        setBalanceMinor(Money.toMinor(balance));
+    }
+
+    public void setBalanceMinor(long minor) {
+        checkRange(minor);
+        HotCredits h = hot;
+        if (h != null) {
+            h.lock.lock();
+            h.close();
+            try {
+                merge(h);
+                setState(minor);
+            } finally {
+                reopen(h);
+            }
+        } else {
+            setState(minor);
+        }
+    }
+
+    private void setState(long minor) {
+        long s;
+        do {
+            s = state.get();
+        } while (!state.compareAndSet(s, (minor << 1) | (s & FROZEN_BIT)));
     }
 
     public boolean isFrozen() {
-        return isFrozen;
+        return (state.get() & FROZEN_BIT) != 0;
     }
 
     public void setFrozen(boolean frozen) {
-        isFrozen = frozen;
+        HotCredits h = hot;
+        if (h == null) {
+            updateFrozen(frozen);
+            return;
+        }
+        h.lock.lock();
+        h.close();
+        try {
+            merge(h);
+            updateFrozen(frozen);
+        } finally {
+            reopen(h);
+        }
+    }
+
+    public boolean toggleFrozen() {
+        HotCredits h = hot;
+        if (h == null)
+            return (state.getAndUpdate(s -> s ^ FROZEN_BIT) & FROZEN_BIT) == 0;
+        h.lock.lock();
+        h.close();
+        try {
+            merge(h);
+            return (state.getAndUpdate(s -> s ^ FROZEN_BIT) & FROZEN_BIT) == 0;
+        } finally {
+            reopen(h);
+        }
+    }
+
+    private void updateFrozen(boolean frozen) {
+        long s;
+        do {
+            s = state.get();
+        } while (!state.compareAndSet(s, frozen ? s | FROZEN_BIT : s & ~FROZEN_BIT));
+    }
+
+    // hot deposits stay closed while the account is frozen, so they fall through to the locked path below
+    private void reopen(HotCredits h) {
+        try {
+            if (!isFrozen())
+                h.open();
+        } finally {
+            h.lock.unlock();
+        }
+    }
+
+    public BalanceUpdate deposit(long amountMinor) {
+        if (!inRange(amountMinor))
+            return BalanceUpdate.OVERFLOW;
+        HotCredits h = hot;
+        if (h != null) {
+            if (h.tryCredit(amountMinor, state))
+                return BalanceUpdate.APPLIED;
+            h.lock.lock();
+            h.close();
+            try {
+                merge(h);
+                return credit(amountMinor);
+            } finally {
+                reopen(h);
+            }
+        }
+        return credit(amountMinor);
+    }
+
+    private BalanceUpdate credit(long amountMinor) {
+        long s;
+        long next;
+        do {
+            s = state.get();
+            if ((s & FROZEN_BIT) != 0)
+                return BalanceUpdate.FROZEN;
+            next = (s >> 1) + amountMinor;
+            if (!inRange(next))
+                return BalanceUpdate.OVERFLOW;
+        } while (!state.compareAndSet(s, (next << 1) | (s & FROZEN_BIT)));
+        return BalanceUpdate.APPLIED;
+    }
+
+    public BalanceUpdate withdraw(long amountMinor) {
+        if (!inRange(amountMinor))
+            return BalanceUpdate.OVERFLOW;
+        HotCredits h = hot;
+        if (h == null)
+            return debit(amountMinor);
+        h.lock.lock();
+        try {
+            merge(h);
+            return debit(amountMinor);
+        } finally {
+            h.lock.unlock();
+        }
+    }
+
+    private BalanceUpdate debit(long amountMinor) {
+        long s;
+        long next;
+        do {
+            s = state.get();
+            if ((s & FROZEN_BIT) != 0)
+                return BalanceUpdate.FROZEN;
+            long balance = s >> 1;
+            if (balance < amountMinor)
+                return BalanceUpdate.INSUFFICIENT_FUNDS;
+            next = balance - amountMinor;
+            if (!inRange(next))
+                return BalanceUpdate.OVERFLOW;
+        } while (!state.compareAndSet(s, (next << 1) | (s & FROZEN_BIT)));
+        return BalanceUpdate.APPLIED;
+    }
+
+    public void forceCredit(long amountMinor) {
+        checkRange(amountMinor);
+        HotCredits h = hot;
+        if (h == null) {
+            addToState(amountMinor);
+            return;
+        }
+        h.lock.lock();
+        h.close();
+        try {
+            merge(h);
+            addToState(amountMinor);
+        } finally {
+            reopen(h);
+        }
+    }
+
+    private void addToState(long amountMinor) {
+        long s;
+        long next;
+        do {
+            s = state.get();
+            next = (s >> 1) + amountMinor;
+            checkRange(next);
+        } while (!state.compareAndSet(s, (next << 1) | (s & FROZEN_BIT)));
+    }
+
+    private static boolean inRange(long minor) {
+        return minor <= MAX_BALANCE && minor >= MIN_BALANCE;
+    }
+
+    private static void checkRange(long minor) {
+        if (!inRange(minor))
+            throw new ArithmeticException("Balance out of range");
     }
 
     @Override
     public String toString() {
-        return "Account{name='" + name + "', balance=" + balance + ", frozen=" + isFrozen + "}";
+        return "Account{name='" + name + "', balance=" + getBalance() + ", frozen=" + isFrozen() + "}";
+    }
+
+    // Each cell holds [pending credits | merge generation | closed bit]. A credit is a single CAS on the caller's
+    // cell and only succeeds if no merge has run since the cell was read, so the balance it was checked against is
+    // still the one the cell will be folded into. Freezing or an exact deposit closes every cell under the lock.
+    private static class HotCredits {
+        private static final int STRIPES = Math.min(64, Integer.highestOneBit(
+                Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) << 1);
+        private static final int PAD = 8;
+        private static final int GENERATION_BITS = 10;
+        private static final int PENDING_SHIFT = GENERATION_BITS + 1;
+        private static final long CLOSED = 1L;
+        private static final long GENERATION_MASK = ((1L << GENERATION_BITS) - 1) << 1;
+        private static final long CELL_LIMIT = 1L << 52;
+        private static final long HOT_LIMIT = MAX_BALANCE - STRIPES * CELL_LIMIT;
+
+        final AtomicLongArray cells = new AtomicLongArray(STRIPES * PAD);
+        final ReentrantLock lock = new ReentrantLock();
+
+        boolean tryCredit(long amountMinor, AtomicLong state) {
+            if (amountMinor < 0 || amountMinor > CELL_LIMIT)
+                return false;
+            int cell = cellOfCurrentThread();
+            while (true) {
+                long c = cells.get(cell);
+                if ((c & CLOSED) != 0)
+                    return false;
+                long s = state.get();
+                long pending = (c >>> PENDING_SHIFT) + amountMinor;
+                if ((s & FROZEN_BIT) != 0 || (s >> 1) > HOT_LIMIT || pending > CELL_LIMIT)
+                    return false;
+                if (cells.compareAndSet(cell, c, (pending << PENDING_SHIFT) | (c & (GENERATION_MASK | CLOSED))))
+                    return true;
+            }
+        }
+
+        long drain() {
+            if (isEmpty())
+                return 0;
+            long total = 0;
+            for (int i = 0; i < cells.length(); i += PAD) {
+                long c;
+                do {
+                    c = cells.get(i);
+                } while (!cells.compareAndSet(i, c, ((c + 2) & GENERATION_MASK) | (c & CLOSED)));
+                total += c >>> PENDING_SHIFT;
+            }
+            return total;
+        }
+
+        private boolean isEmpty() {
+            for (int i = 0; i < cells.length(); i += PAD) {
+                if ((cells.get(i) >>> PENDING_SHIFT) != 0)
+                    return false;
+            }
+            return true;
+        }
+
+        void close() {
+            for (int i = 0; i < cells.length(); i += PAD)
+                setClosed(i, true);
+        }
+
+        void open() {
+            for (int i = 0; i < cells.length(); i += PAD)
+                setClosed(i, false);
+        }
+
+        private void setClosed(int cell, boolean closed) {
+            long c;
+            do {
+                c = cells.get(cell);
+            } while (!cells.compareAndSet(cell, c, closed ? c | CLOSED : c & ~CLOSED));
+        }
+
+        private static int cellOfCurrentThread() {
+            int h = System.identityHashCode(Thread.currentThread());
+            h ^= h >>> 16;
+            return (h & (STRIPES - 1)) * PAD;
+        }
     }
 }
@@ -1,5 +1,5 @@
 package com.bank.model;
 
 public enum ActionType {
-    DEPOSIT, WITHDRAW, FREEZE, TRANSFER
+    DEPOSIT, WITHDRAW, FREEZE, TRANSFER, REVERSAL
 }
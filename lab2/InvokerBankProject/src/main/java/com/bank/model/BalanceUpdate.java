@@ -0,0 +1,5 @@
+package com.bank.model;
+
+public enum BalanceUpdate {
+    APPLIED, FROZEN, INSUFFICIENT_FUNDS, OVERFLOW
+}
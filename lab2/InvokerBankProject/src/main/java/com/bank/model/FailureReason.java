@@ -0,0 +1,17 @@
+package com.bank.model;
+
+import java.util.concurrent.RejectedExecutionException;
+
+public enum FailureReason {
+    ACCOUNT_NOT_FOUND, FROZEN, INSUFFICIENT_FUNDS, OVERFLOW, REJECTED, OTHER;
+
+    public static FailureReason of(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TransactionFailedException)
+                return ((TransactionFailedException) t).getReason();
+            if (t instanceof RejectedExecutionException)
+                return REJECTED;
+        }
+        return OTHER;
+    }
+}
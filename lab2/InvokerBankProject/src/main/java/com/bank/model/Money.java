@@ -0,0 +1,37 @@
+package com.bank.model;
+
+import java.math.BigDecimal;
+
+public final class Money {
+    public static final int SCALE = 2;
+    private static final long UNIT = 100;
+
+    private Money() {
+    }
+
+    // never rounds: a fraction of a minor unit or an amount outside the long range is rejected, not truncated
+    public static long toMinor(BigDecimal amount) {
+        if (amount == null)
+            return 0;
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must have at most " + SCALE
+                    + " decimal places and fit in minor units: " + amount.toPlainString(), e);
+        }
+    }
+
+    public static long ofUnits(long units) {
+        return Math.multiplyExact(units, UNIT);
+    }
+
+    public static long toUnits(long minor) {
+        return minor / UNIT;
+    }
+
+    public static BigDecimal fromMinor(long minor) {
+        if (minor % UNIT == 0)
+            return BigDecimal.valueOf(minor / UNIT);
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
@@ -6,22 +6,41 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 public class Transaction {
-    private UUID id;
-    private LocalDateTime timestamp;
-    private ActionType action;
+    private final UUID id;
+    private final long epochNanos;
+    private final ActionType action;
     private BigDecimal amount;
-    private UUID accountId;
-    private UUID targetAccountId;
+    private final long amountMinor;
+    private final UUID accountId;
+    private final UUID targetAccountId;
 
     public Transaction(ActionType action, BigDecimal amount, UUID accountId, UUID targetAccountId) {
-        this.id = UUID.randomUUID();
-        this.timestamp = LocalDateTime.now();
-        this.action = action;
+        this(action, Money.toMinor(amount), accountId, targetAccountId);
         this.amount = amount;
+    }
+
+    public Transaction(ActionType action, long amountMinor, UUID accountId, UUID targetAccountId) {
+        this.epochNanos = TransactionIds.epochNanos();
+        this.id = TransactionIds.next(epochNanos);
+        this.action = action;
+        this.amountMinor = amountMinor;
         this.accountId = accountId;
         this.targetAccountId = targetAccountId;
     }
 
+    Transaction(UUID id, long epochNanos, ActionType action, long amountMinor, UUID accountId, UUID targetAccountId) {
+        this.id = id;
+        this.epochNanos = epochNanos;
+        this.action = action;
+        this.amountMinor = amountMinor;
+        this.accountId = accountId;
+        this.targetAccountId = targetAccountId;
+    }
+
+    public static Transaction withId(UUID id, ActionType action, long amountMinor, UUID accountId, UUID targetAccountId) {
+        return new Transaction(id, TransactionIds.epochNanos(), action, amountMinor, accountId, targetAccountId);
+    }
+
     public void accept(Visitor visitor) {
         visitor.visit(this);
     }
@@ -31,7 +50,16 @@ public class Transaction {
     }
 
     public BigDecimal getAmount() {
-        return amount;
+        BigDecimal value = amount;
+        if (value == null) {
+            value = Money.fromMinor(amountMinor);
+            amount = value;
+        }
+        return value;
+    }
+
+    public long getAmountMinor() {
+        return amountMinor;
     }
 
     public UUID getAccountId() {
@@ -46,7 +74,11 @@ public class Transaction {
         return id;
     }
 
+    public long getEpochNanos() {
+        return epochNanos;
+    }
+
     public LocalDateTime getTimestamp() {
-        return timestamp;
+        return TransactionIds.toLocalDateTime(epochNanos);
     }
 }
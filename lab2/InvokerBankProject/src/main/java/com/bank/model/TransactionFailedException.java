@@ -0,0 +1,16 @@
+package com.bank.model;
+
+public class TransactionFailedException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final FailureReason reason;
+
+    public TransactionFailedException(FailureReason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public FailureReason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.model;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class TransactionIds {
+    private static final long BASE_EPOCH_NANOS;
+    private static final long BASE_NANO_TIME;
+    private static final long NODE;
+    private static final AtomicLong LAST = new AtomicLong();
+
+    static {
+        Instant now = Instant.now();
+        BASE_NANO_TIME = System.nanoTime();
+        BASE_EPOCH_NANOS = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        NODE = (new SecureRandom().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    }
+
+    private TransactionIds() {
+    }
+
+    public static long epochNanos() {
+        return BASE_EPOCH_NANOS + (System.nanoTime() - BASE_NANO_TIME);
+    }
+
+    public static UUID next(long epochNanos) {
+        long candidate = (epochNanos / 1_000_000L) << 12;
+        long sequence;
+        while (true) {
+            long last = LAST.get();
+            sequence = Math.max(candidate, last + 1);
+            if (LAST.compareAndSet(last, sequence))
+                break;
+        }
+        long msb = ((sequence >>> 12) << 16) | 0x7000L | (sequence & 0xFFFL);
+        return new UUID(msb, NODE);
+    }
+
+    public static long epochMillis(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochNanos) {
+        Instant instant = Instant.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                Math.floorMod(epochNanos, 1_000_000_000L));
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
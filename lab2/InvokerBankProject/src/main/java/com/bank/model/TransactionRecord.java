@@ -0,0 +1,116 @@
+package com.bank.model;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+public final class TransactionRecord {
+    public static final int SIZE = 65;
+
+    private static final int ID = 0;
+    private static final int EPOCH_NANOS = 16;
+    private static final int ACTION = 24;
+    private static final int AMOUNT = 25;
+    private static final int ACCOUNT = 33;
+    private static final int TARGET = 49;
+    private static final ActionType[] ACTIONS = ActionType.values();
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    public static void write(ByteBuffer buf, Transaction tx) {
+        putUuid(buf, tx.getId());
+        buf.putLong(tx.getEpochNanos());
+        buf.put((byte) tx.getAction().ordinal());
+        buf.putLong(tx.getAmountMinor());
+        putUuid(buf, tx.getAccountId());
+        putUuid(buf, tx.getTargetAccountId());
+    }
+
+    public static Transaction read(ByteBuffer buf) {
+        Transaction tx = new TransactionRecord().wrap(buf, buf.position()).toTransaction();
+        buf.position(buf.position() + SIZE);
+        return tx;
+    }
+
+    public TransactionRecord wrap(ByteBuffer buf, int offset) {
+        this.buffer = buf;
+        this.offset = offset;
+        return this;
+    }
+
+    public long idMsb() {
+        return buffer.getLong(offset + ID);
+    }
+
+    public long idLsb() {
+        return buffer.getLong(offset + ID + 8);
+    }
+
+    public long epochNanos() {
+        return buffer.getLong(offset + EPOCH_NANOS);
+    }
+
+    public boolean isValid() {
+        int action = buffer.get(offset + ACTION);
+        return action >= 0 && action < ACTIONS.length
+                && (idMsb() != 0 || idLsb() != 0)
+                && (accountMsb() != 0 || accountLsb() != 0)
+                && amountMinor() >= 0;
+    }
+
+    // foreign bytes should pass isValid() first; an unknown code is still reported rather than indexed
+    public ActionType action() {
+        int code = buffer.get(offset + ACTION);
+        if (code < 0 || code >= ACTIONS.length)
+            throw new IllegalArgumentException("Unknown action code " + code);
+        return ACTIONS[code];
+    }
+
+    public long amountMinor() {
+        return buffer.getLong(offset + AMOUNT);
+    }
+
+    public long accountMsb() {
+        return buffer.getLong(offset + ACCOUNT);
+    }
+
+    public long accountLsb() {
+        return buffer.getLong(offset + ACCOUNT + 8);
+    }
+
+    public long targetMsb() {
+        return buffer.getLong(offset + TARGET);
+    }
+
+    public long targetLsb() {
+        return buffer.getLong(offset + TARGET + 8);
+    }
+
+    public UUID id() {
+        return uuid(idMsb(), idLsb());
+    }
+
+    public UUID accountId() {
+        return uuid(accountMsb(), accountLsb());
+    }
+
+    public UUID targetAccountId() {
+        return uuid(targetMsb(), targetLsb());
+    }
+
+    public Transaction toTransaction() {
+        return new Transaction(id(), epochNanos(), action(), amountMinor(), accountId(), targetAccountId());
+    }
+
+    private static void putUuid(ByteBuffer buf, UUID id) {
+        if (id == null) {
+            buf.putLong(0).putLong(0);
+        } else {
+            buf.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID uuid(long msb, long lsb) {
+        return (msb == 0 && lsb == 0) ? null : new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,47 @@
+package com.bank.model;
+
+public class TransactionResult {
+    private final Transaction transaction;
+    private final boolean success;
+    private final String error;
+    private final FailureReason reason;
+
+    private TransactionResult(Transaction transaction, boolean success, String error, FailureReason reason) {
+        this.transaction = transaction;
+        this.success = success;
+        this.error = error;
+        this.reason = reason;
+    }
+
+    public static TransactionResult success(Transaction tx) {
+        return new TransactionResult(tx, true, null, null);
+    }
+
+    public static TransactionResult failure(Transaction tx, Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null)
+            cause = cause.getCause();
+        return new TransactionResult(tx, false, cause.getMessage(), FailureReason.of(error));
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public FailureReason getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return success ? "OK " + transaction.getId() : "FAILED " + transaction.getId() + ": " + error;
+    }
+}
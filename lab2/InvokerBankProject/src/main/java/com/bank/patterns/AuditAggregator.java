@@ -0,0 +1,140 @@
+package com.bank.patterns;
+
+import com.bank.model.ActionType;
+import com.bank.model.Money;
+import com.bank.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+public class AuditAggregator implements TransactionObserver {
+    private static final int ACTIONS = ActionType.values().length;
+
+    private final LongSupplier clock;
+    private final AtomicLongArray counts = new AtomicLongArray(ACTIONS);
+    private final AtomicLongArray amounts = new AtomicLongArray(ACTIONS);
+    private final Map<UUID, AccountTotals> perAccount = new ConcurrentHashMap<>();
+    private final RollingWindow minute = new RollingWindow(ACTIONS, 1_000, 60);
+    private final RollingWindow hour = new RollingWindow(ACTIONS, 60_000, 60);
+
+    public AuditAggregator() {
+        this(System::currentTimeMillis);
+    }
+
+    public AuditAggregator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void onTransactionCompleted(Transaction tx) {
+        int action = tx.getAction().ordinal();
+        long amount = tx.getAmountMinor();
+        long now = clock.getAsLong();
+
+        counts.incrementAndGet(action);
+        amounts.addAndGet(action, amount);
+        minute.record(now, action, amount);
+        hour.record(now, action, amount);
+        perAccount.computeIfAbsent(tx.getAccountId(), id -> new AccountTotals()).record(action, amount);
+        if (tx.getAction() == ActionType.TRANSFER && tx.getTargetAccountId() != null)
+            perAccount.computeIfAbsent(tx.getTargetAccountId(), id -> new AccountTotals()).receive(amount);
+    }
+
+    public long getCount(ActionType type) {
+        return counts.get(type.ordinal());
+    }
+
+    public BigDecimal getTotal(ActionType type) {
+        return Money.fromMinor(amounts.get(type.ordinal()));
+    }
+
+    public long getCount(UUID accountId, ActionType type) {
+        AccountTotals totals = perAccount.get(accountId);
+        return totals == null ? 0 : totals.counts.get(type.ordinal());
+    }
+
+    public BigDecimal getTotal(UUID accountId, ActionType type) {
+        AccountTotals totals = perAccount.get(accountId);
+        return Money.fromMinor(totals == null ? 0 : totals.amounts.get(type.ordinal()));
+    }
+
+    public BigDecimal getTransferredIn(UUID accountId) {
+        AccountTotals totals = perAccount.get(accountId);
+        return Money.fromMinor(totals == null ? 0 : totals.received.get());
+    }
+
+    public long getLastMinuteCount(ActionType type) {
+        return minute.slidingCount(clock.getAsLong(), type.ordinal());
+    }
+
+    public long getLastHourCount(ActionType type) {
+        return hour.slidingCount(clock.getAsLong(), type.ordinal());
+    }
+
+    public long getThisMinuteCount(ActionType type) {
+        return minute.tumblingCount(clock.getAsLong(), type.ordinal());
+    }
+
+    public long getThisHourCount(ActionType type) {
+        return hour.tumblingCount(clock.getAsLong(), type.ordinal());
+    }
+
+    public BigDecimal getLastMinuteTotal(ActionType type) {
+        return Money.fromMinor(minute.slidingAmount(clock.getAsLong(), type.ordinal()));
+    }
+
+    public BigDecimal getLastHourTotal(ActionType type) {
+        return Money.fromMinor(hour.slidingAmount(clock.getAsLong(), type.ordinal()));
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < ACTIONS; i++)
+            total += counts.get(i);
+        return total;
+    }
+
+    public void reset() {
+        for (int i = 0; i < ACTIONS; i++) {
+            counts.set(i, 0);
+            amounts.set(i, 0);
+        }
+        perAccount.clear();
+        minute.clear();
+        hour.clear();
+    }
+
+    public String getReport() {
+        long lastMinute = 0;
+        long lastHour = 0;
+        for (ActionType type : ActionType.values()) {
+            lastMinute += getLastMinuteCount(type);
+            lastHour += getLastHourCount(type);
+        }
+        return String.format(
+                "Audit Report:\n > Total Deposited: %s\n > Total Withdrawn: %s\n > Total Transferred: %s (%d)\n"
+                        + " > Freeze Actions: %d\n > Last Minute: %d tx\n > Last Hour: %d tx",
+                getTotal(ActionType.DEPOSIT), getTotal(ActionType.WITHDRAW), getTotal(ActionType.TRANSFER),
+                getCount(ActionType.TRANSFER), getCount(ActionType.FREEZE), lastMinute, lastHour);
+    }
+
+    private static class AccountTotals {
+        private final AtomicLongArray counts = new AtomicLongArray(ACTIONS);
+        private final AtomicLongArray amounts = new AtomicLongArray(ACTIONS);
+        private final AtomicLong received = new AtomicLong();
+
+        void record(int action, long amount) {
+            counts.incrementAndGet(action);
+            amounts.addAndGet(action, amount);
+        }
+
+        void receive(long amount) {
+            received.addAndGet(amount);
+        }
+    }
+}
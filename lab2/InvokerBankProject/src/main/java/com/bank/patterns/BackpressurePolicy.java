@@ -0,0 +1,5 @@
+package com.bank.patterns;
+
+public enum BackpressurePolicy {
+    DROP, BLOCK, SAMPLE
+}
@@ -0,0 +1,161 @@
+package com.bank.patterns;
+
+import com.bank.model.Transaction;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ObserverDispatcher {
+    private static final int SAMPLE_RATE = 10;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final int capacity;
+    private final BackpressurePolicy defaultPolicy;
+
+    public ObserverDispatcher(int capacity, BackpressurePolicy defaultPolicy) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    public void subscribe(TransactionObserver observer) {
+        subscribe(observer, defaultPolicy);
+    }
+
+    public void subscribe(TransactionObserver observer, BackpressurePolicy policy) {
+        Subscription subscription = new Subscription(observer, policy, capacity);
+        subscriptions.add(subscription);
+        subscription.start();
+    }
+
+    public boolean unsubscribe(TransactionObserver observer) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.observer == observer && subscriptions.remove(subscription)) {
+                subscription.stop();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // runs the action on the observer's own thread once every event queued before it has been delivered
+    public boolean runAfterQueued(TransactionObserver observer, Runnable action) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.observer == observer)
+                return subscription.mark(action);
+        }
+        return false;
+    }
+
+    public void publish(Transaction tx) {
+        for (Subscription subscription : subscriptions)
+            subscription.offer(tx);
+    }
+
+    public long getDroppedCount() {
+        long total = 0;
+        for (Subscription subscription : subscriptions)
+            total += subscription.dropped.sum();
+        return total;
+    }
+
+    public void close() {
+        for (Subscription subscription : subscriptions)
+            subscription.stop();
+        subscriptions.clear();
+    }
+
+    private static class Subscription implements Runnable {
+        private final TransactionObserver observer;
+        private final BackpressurePolicy policy;
+        private final BlockingQueue<Object> queue;
+        private final int highWatermark;
+        private final AtomicLong sampleCounter = new AtomicLong();
+        private final LongAdder dropped = new LongAdder();
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        Subscription(TransactionObserver observer, BackpressurePolicy policy, int capacity) {
+            this.observer = observer;
+            this.policy = policy;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.highWatermark = Math.max(1, capacity / 2);
+            this.thread = new Thread(this, "bank-observer-" + observer.getClass().getSimpleName());
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void offer(Transaction tx) {
+            switch (policy) {
+                case BLOCK:
+                    try {
+                        queue.put(tx);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped.increment();
+                    }
+                    return;
+                case SAMPLE:
+                    if (queue.size() >= highWatermark && sampleCounter.incrementAndGet() % SAMPLE_RATE != 0) {
+                        dropped.increment();
+                        return;
+                    }
+                    enqueue(tx);
+                    return;
+                case DROP:
+                default:
+                    enqueue(tx);
+            }
+        }
+
+        private void enqueue(Transaction tx) {
+            if (!queue.offer(tx))
+                dropped.increment();
+        }
+
+        boolean mark(Runnable action) {
+            try {
+                queue.put(action);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running || !queue.isEmpty()) {
+                try {
+                    Object next = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (next instanceof Transaction tx)
+                        observer.onTransactionCompleted(tx);
+                    else if (next != null)
+                        ((Runnable) next).run();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (RuntimeException e) {
+                    System.err.println("Observer Failed: " + e.getMessage());
+                }
+            }
+        }
+
+        void stop() {
+            running = false;
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.bank.patterns;
+
+import java.util.Arrays;
+
+public class RollingWindow {
+    private final int actions;
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final long[] epochs;
+    private final long[] counts;
+    private final long[] amounts;
+
+    public RollingWindow(int actions, long bucketMillis, int bucketCount) {
+        this.actions = actions;
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+        this.epochs = new long[bucketCount];
+        this.counts = new long[bucketCount * actions];
+        this.amounts = new long[bucketCount * actions];
+        Arrays.fill(epochs, -1);
+    }
+
+    public synchronized void record(long nowMillis, int action, long amount) {
+        long epoch = nowMillis / bucketMillis;
+        int slot = (int) (epoch % bucketCount);
+        if (epochs[slot] != epoch) {
+            epochs[slot] = epoch;
+            Arrays.fill(counts, slot * actions, (slot + 1) * actions, 0);
+            Arrays.fill(amounts, slot * actions, (slot + 1) * actions, 0);
+        }
+        counts[slot * actions + action]++;
+        amounts[slot * actions + action] += amount;
+    }
+
+    public synchronized long slidingCount(long nowMillis, int action) {
+        long now = nowMillis / bucketMillis;
+        return sum(counts, action, now - bucketCount + 1, now);
+    }
+
+    public synchronized long slidingAmount(long nowMillis, int action) {
+        long now = nowMillis / bucketMillis;
+        return sum(amounts, action, now - bucketCount + 1, now);
+    }
+
+    public synchronized long tumblingCount(long nowMillis, int action) {
+        long now = nowMillis / bucketMillis;
+        return sum(counts, action, now - now % bucketCount, now);
+    }
+
+    public synchronized long tumblingAmount(long nowMillis, int action) {
+        long now = nowMillis / bucketMillis;
+        return sum(amounts, action, now - now % bucketCount, now);
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(epochs, -1);
+        Arrays.fill(counts, 0);
+        Arrays.fill(amounts, 0);
+    }
+
+    private long sum(long[] values, int action, long fromEpoch, long toEpoch) {
+        long total = 0;
+        for (int slot = 0; slot < bucketCount; slot++) {
+            long epoch = epochs[slot];
+            if (epoch >= fromEpoch && epoch <= toEpoch)
+                total += values[slot * actions + action];
+        }
+        return total;
+    }
+}
@@ -2,51 +2,99 @@ package com.bank.patterns;
 
 import com.bank.model.Account;
 import com.bank.model.ActionType;
+import com.bank.model.BalanceUpdate;
+import com.bank.model.FailureReason;
 import com.bank.model.Transaction;
+import com.bank.model.TransactionFailedException;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 public class StrategyFactory {
+    private static volatile TransactionStrategy[] strategies = defaults();
+
+    private static TransactionStrategy[] defaults() {
+        TransactionStrategy[] table = new TransactionStrategy[ActionType.values().length];
+        table[ActionType.DEPOSIT.ordinal()] = new DepositStrategy();
+        table[ActionType.WITHDRAW.ordinal()] = new WithdrawStrategy();
+        table[ActionType.FREEZE.ordinal()] = new FreezeStrategy();
+        table[ActionType.TRANSFER.ordinal()] = new TransferStrategy();
+        table[ActionType.REVERSAL.ordinal()] = new ReversalStrategy();
+        return table;
+    }
+
     public static TransactionStrategy getStrategy(ActionType type) {
-        switch (type) {
-            case DEPOSIT:
-                return new DepositStrategy();
-            case WITHDRAW:
-                return new WithdrawStrategy();
-            case FREEZE:
-                return new FreezeStrategy();
-            case TRANSFER:
-                return new TransferStrategy();
+        TransactionStrategy strategy = strategies[type.ordinal()];
+        if (strategy == null)
+            throw new IllegalArgumentException("Unknown type: " + type);
+        return strategy;
+    }
+
+    public static synchronized void register(ActionType type, TransactionStrategy strategy) {
+        Objects.requireNonNull(strategy, "strategy");
+        TransactionStrategy[] table = strategies.clone();
+        table[type.ordinal()] = strategy;
+        strategies = table;
+    }
+
+    private static void check(BalanceUpdate result, String frozenMessage) {
+        switch (result) {
+            case APPLIED:
+                return;
+            case FROZEN:
+                throw new TransactionFailedException(FailureReason.FROZEN, frozenMessage);
+            case INSUFFICIENT_FUNDS:
+                throw new TransactionFailedException(FailureReason.INSUFFICIENT_FUNDS, "Insufficient funds");
             default:
-                throw new IllegalArgumentException("Unknown type");
+                throw new TransactionFailedException(FailureReason.OVERFLOW, "Balance overflow");
         }
     }
 
     private static class DepositStrategy implements TransactionStrategy {
         @Override
         public void execute(Account account, Transaction tx, Map<UUID, Account> repo) {
-            if (account.isFrozen())
-                throw new IllegalStateException("Account is FROZEN. Cannot deposit.");
-            account.setBalance(account.getBalance().add(tx.getAmount()));
+            check(account.deposit(tx.getAmountMinor()), "Account is FROZEN. Cannot deposit.");
+        }
+
+        @Override
+        public boolean isLockFree() {
+            return true;
         }
     }
 
     private static class WithdrawStrategy implements TransactionStrategy {
         @Override
         public void execute(Account account, Transaction tx, Map<UUID, Account> repo) {
-            if (account.isFrozen())
-                throw new IllegalStateException("Account is FROZEN. Cannot withdraw.");
-            if (account.getBalance().compareTo(tx.getAmount()) < 0)
-                throw new IllegalStateException("Insufficient funds");
-            account.setBalance(account.getBalance().subtract(tx.getAmount()));
+            check(account.withdraw(tx.getAmountMinor()), "Account is FROZEN. Cannot withdraw.");
+        }
+
+        @Override
+        public boolean isLockFree() {
+            return true;
+        }
+    }
+
+    private static class ReversalStrategy implements TransactionStrategy {
+        @Override
+        public void execute(Account account, Transaction tx, Map<UUID, Account> repo) {
+            account.forceCredit(tx.getAmountMinor());
+        }
+
+        @Override
+        public boolean isLockFree() {
+            return true;
         }
     }
 
     private static class FreezeStrategy implements TransactionStrategy {
         @Override
         public void execute(Account account, Transaction tx, Map<UUID, Account> repo) {
-            boolean newState = !account.isFrozen();
-            account.setFrozen(newState);
+            account.toggleFrozen();
+        }
+
+        @Override
+        public boolean isLockFree() {
+            return true;
         }
     }
 
@@ -54,17 +102,19 @@ public class StrategyFactory {
         @Override
         public void execute(Account fromAccount, Transaction tx, Map<UUID, Account> repo) {
             if (fromAccount.isFrozen())
-                throw new IllegalStateException("Source Account is frozen");
+                throw new TransactionFailedException(FailureReason.FROZEN, "Source Account is frozen");
             Account toAccount = repo.get(tx.getTargetAccountId());
             if (toAccount == null)
-                throw new IllegalArgumentException("Target account not found");
+                throw new TransactionFailedException(FailureReason.ACCOUNT_NOT_FOUND, "Target account not found");
             if (toAccount.isFrozen())
-                throw new IllegalStateException("Target Account is frozen");
-            if (fromAccount.getBalance().compareTo(tx.getAmount()) < 0)
-                throw new IllegalStateException("Insufficient funds");
+                throw new TransactionFailedException(FailureReason.FROZEN, "Target Account is frozen");
 
-            fromAccount.setBalance(fromAccount.getBalance().subtract(tx.getAmount()));
-            toAccount.setBalance(toAccount.getBalance().add(tx.getAmount()));
+            check(fromAccount.withdraw(tx.getAmountMinor()), "Source Account is frozen");
+            BalanceUpdate credited = toAccount.deposit(tx.getAmountMinor());
+            if (credited != BalanceUpdate.APPLIED) {
+                fromAccount.forceCredit(tx.getAmountMinor());
+                check(credited, "Target Account is frozen");
+            }
         }
     }
 }
@@ -7,4 +7,8 @@ import java.util.UUID;
 
 public interface TransactionStrategy {
     void execute(Account account, Transaction tx, Map<UUID, Account> allAccounts);
+
+    default boolean isLockFree() {
+        return false;
+    }
 }
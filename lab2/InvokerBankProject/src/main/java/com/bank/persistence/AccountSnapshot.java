@@ -0,0 +1,91 @@
+package com.bank.persistence;
+
+import com.bank.model.Account;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+public final class AccountSnapshot {
+    private static final int MAGIC = 0x42414E4B;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+
+    private AccountSnapshot() {
+    }
+
+    public static void write(Path file, long lsn, Collection<Account> accounts) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(lsn).putInt(accounts.size());
+            for (Account account : accounts) {
+                byte[] name = account.getName().getBytes(StandardCharsets.UTF_8);
+                if (buffer.remaining() < 27 + name.length)
+                    flush(channel, buffer, crc);
+                buffer.putLong(account.getId().getMostSignificantBits());
+                buffer.putLong(account.getId().getLeastSignificantBits());
+                buffer.putLong(account.getBalanceMinor());
+                buffer.put((byte) (account.isFrozen() ? 1 : 0));
+                buffer.putShort((short) name.length);
+                buffer.put(name);
+            }
+            flush(channel, buffer, crc);
+            buffer.putInt((int) crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    public static long load(Path file, Map<UUID, Account> accounts) throws IOException {
+        if (!Files.exists(file))
+            return 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.remaining() < HEADER_SIZE + 4 || data.getInt(0) != MAGIC || data.getInt(4) != VERSION)
+                throw new IOException("Not a snapshot file: " + file);
+            CRC32 crc = new CRC32();
+            crc.update(data.slice(0, data.limit() - 4));
+            if ((int) crc.getValue() != data.getInt(data.limit() - 4))
+                throw new IOException("Snapshot checksum mismatch: " + file);
+
+            data.position(8);
+            long lsn = data.getLong();
+            int count = data.getInt();
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(data.getLong(), data.getLong());
+                long balance = data.getLong();
+                boolean frozen = data.get() != 0;
+                byte[] name = new byte[Short.toUnsignedInt(data.getShort())];
+                data.get(name);
+                Account account = new Account(id, new String(name, StandardCharsets.UTF_8));
+                account.setBalanceMinor(balance);
+                account.setFrozen(frozen);
+                accounts.put(id, account);
+            }
+            return lsn;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.bank.persistence;
+
+import com.bank.model.Account;
+import com.bank.model.ActionType;
+import com.bank.model.Transaction;
+import com.bank.model.TransactionRecord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+public class TransactionJournal implements AutoCloseable {
+    private static final byte RECORD_ACCOUNT = 1;
+    private static final byte RECORD_TRANSACTION = 3;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_GROUP = 1024;
+    private static final int MAX_RECORD = 1 << 16;
+
+    private final Path file;
+    private FileChannel channel;
+    private final BlockingQueue<PendingRecord> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong lastLsn;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_GROUP * 128);
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private TransactionJournal(Path file, long lastLsn) throws IOException {
+        this.file = file;
+        this.channel = openForAppend(file);
+        this.lastLsn = new AtomicLong(lastLsn);
+        this.writer = new Thread(this::writeLoop, "bank-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static TransactionJournal open(Path file, long lastLsn) throws IOException {
+        return new TransactionJournal(file, lastLsn);
+    }
+
+    private static FileChannel openForAppend(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public long getLastLsn() {
+        return lastLsn.get();
+    }
+
+    public CompletableFuture<Void> append(Transaction tx) {
+        return enqueue(new PendingRecord(tx));
+    }
+
+    public CompletableFuture<Void> appendAccount(Account account) {
+        return enqueue(new PendingRecord(account));
+    }
+
+    public CompletableFuture<Void> rotate() {
+        if (closed)
+            return CompletableFuture.failedFuture(new IllegalStateException("Journal is closed"));
+        PendingRecord marker = new PendingRecord();
+        marker.lsn = lastLsn.get();
+        queue.add(marker);
+        return marker.durable;
+    }
+
+    public void deleteSegmentsUpTo(long lsn) throws IOException {
+        for (Path segment : rotatedSegments(file)) {
+            if (segmentLsn(segment) <= lsn)
+                Files.deleteIfExists(segment);
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(PendingRecord record) {
+        if (closed)
+            return CompletableFuture.failedFuture(new IllegalStateException("Journal is closed"));
+        record.lsn = lastLsn.incrementAndGet();
+        queue.add(record);
+        return record.durable;
+    }
+
+    private void writeLoop() {
+        List<PendingRecord> group = new ArrayList<>(MAX_GROUP);
+        while (true) {
+            try {
+                PendingRecord first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed)
+                        return;
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, MAX_GROUP - 1);
+                writeGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            group.clear();
+        }
+    }
+
+    private void writeGroup(List<PendingRecord> group) {
+        int durable = 0;
+        long committedSize = 0;
+        try {
+            committedSize = channel.size();
+            buffer.clear();
+            for (int i = 0; i < group.size(); i++) {
+                PendingRecord record = group.get(i);
+                if (record.isRotation()) {
+                    flush();
+                    switchSegment(record.lsn);
+                    complete(group, durable, i + 1);
+                    durable = i + 1;
+                    committedSize = 0;
+                    continue;
+                }
+                if (buffer.remaining() < MAX_RECORD)
+                    flush();
+                encode(record);
+            }
+            flush();
+            channel.force(false);
+            complete(group, durable, group.size());
+        } catch (IOException | RuntimeException e) {
+            discardFrom(committedSize);
+            for (int i = durable; i < group.size(); i++)
+                group.get(i).durable.completeExceptionally(e);
+        }
+    }
+
+    private static void complete(List<PendingRecord> group, int from, int to) {
+        for (int i = from; i < to; i++)
+            group.get(i).durable.complete(null);
+    }
+
+    private void discardFrom(long size) {
+        try {
+            if (channel.size() > size) {
+                channel.truncate(size);
+                channel.force(false);
+            }
+        } catch (IOException | RuntimeException e) {
+            closed = true;
+            System.err.println("Journal Failed: cannot discard unacknowledged records in " + file + ": " + e);
+        }
+    }
+
+    private void switchSegment(long lsn) throws IOException {
+        channel.force(false);
+        channel.close();
+        Files.move(file, file.resolveSibling(file.getFileName() + "." + lsn), StandardCopyOption.ATOMIC_MOVE);
+        channel = openForAppend(file);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    private void encode(PendingRecord record) {
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        if (record.tx != null) {
+            buffer.put(RECORD_TRANSACTION);
+            buffer.putLong(record.lsn);
+            TransactionRecord.write(buffer, record.tx);
+        } else {
+            buffer.put(RECORD_ACCOUNT);
+            buffer.putLong(record.lsn);
+            putUuid(buffer, record.accountId);
+            buffer.putLong(record.balanceMinor);
+            buffer.put((byte) (record.frozen ? 1 : 0));
+            buffer.putShort((short) record.name.length);
+            buffer.put(record.name);
+        }
+        int end = buffer.position();
+        int length = end - start - HEADER_SIZE;
+        ByteBuffer body = buffer.duplicate();
+        body.position(start + HEADER_SIZE).limit(end);
+        crc.reset();
+        crc.update(body);
+        buffer.putInt(start, length);
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+
+    public static long recover(Path file, Map<UUID, Account> accounts, long afterLsn) throws IOException {
+        long lastLsn = afterLsn;
+        for (Path segment : rotatedSegments(file))
+            lastLsn = Math.max(lastLsn, replaySegment(segment, accounts, afterLsn));
+        if (Files.exists(file))
+            lastLsn = Math.max(lastLsn, replaySegment(file, accounts, afterLsn));
+        return lastLsn;
+    }
+
+    private static List<Path> rotatedSegments(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        String prefix = file.getFileName() + ".";
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, prefix + "*")) {
+            for (Path candidate : stream) {
+                if (segmentLsn(candidate) >= 0)
+                    segments.add(candidate);
+            }
+        }
+        segments.sort(Comparator.comparingLong(TransactionJournal::segmentLsn));
+        return segments;
+    }
+
+    private static long segmentLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        String suffix = name.substring(name.lastIndexOf('.') + 1);
+        try {
+            return Long.parseLong(suffix);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long replaySegment(Path segment, Map<UUID, Account> accounts, long afterLsn) throws IOException {
+        long lastLsn = 0;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 check = new CRC32();
+            TransactionRecord view = new TransactionRecord();
+            long validEnd = 0;
+            while (data.remaining() >= HEADER_SIZE) {
+                int start = data.position();
+                int length = data.getInt();
+                int expected = data.getInt();
+                if (length <= 0 || length > data.remaining())
+                    break;
+                ByteBuffer body = data.slice(data.position(), length);
+                check.reset();
+                check.update(body.duplicate());
+                if ((int) check.getValue() != expected)
+                    break;
+                lastLsn = Math.max(lastLsn, replay(body, view, accounts, afterLsn));
+                data.position(start + HEADER_SIZE + length);
+                validEnd = data.position();
+            }
+            if (validEnd < channel.size())
+                channel.truncate(validEnd);
+        }
+        return lastLsn;
+    }
+
+    private static long replay(ByteBuffer body, TransactionRecord view, Map<UUID, Account> accounts, long afterLsn) {
+        byte type = body.get();
+        long lsn = body.getLong();
+        if (lsn <= afterLsn)
+            return lsn;
+        if (type == RECORD_ACCOUNT) {
+            UUID id = getUuid(body);
+            long balance = body.getLong();
+            boolean frozen = body.get() != 0;
+            byte[] name = new byte[Short.toUnsignedInt(body.getShort())];
+            body.get(name);
+            Account account = new Account(id, new String(name, StandardCharsets.UTF_8));
+            account.setBalanceMinor(balance);
+            account.setFrozen(frozen);
+            accounts.put(id, account);
+        } else if (type == RECORD_TRANSACTION) {
+            view.wrap(body, body.position());
+            redo(view.action(), view.amountMinor(), view.accountId(), view.targetAccountId(), accounts);
+        }
+        return lsn;
+    }
+
+    private static void redo(ActionType action, long amount, UUID accountId, UUID targetId, Map<UUID, Account> accounts) {
+        Account account = accountId != null ? accounts.get(accountId) : null;
+        Account target = targetId != null ? accounts.get(targetId) : null;
+        if (account == null)
+            return;
+        switch (action) {
+            case DEPOSIT:
+            case REVERSAL:
+                account.forceCredit(amount);
+                break;
+            case WITHDRAW:
+                account.forceCredit(-amount);
+                break;
+            case FREEZE:
+                account.toggleFrozen();
+                break;
+            case TRANSFER:
+                account.forceCredit(-amount);
+                if (target != null)
+                    target.forceCredit(amount);
+                break;
+        }
+    }
+
+    private static void putUuid(ByteBuffer buf, UUID id) {
+        if (id == null) {
+            buf.putLong(0).putLong(0);
+        } else {
+            buf.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID getUuid(ByteBuffer buf) {
+        long msb = buf.getLong();
+        long lsb = buf.getLong();
+        return (msb == 0 && lsb == 0) ? null : new UUID(msb, lsb);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PendingRecord left;
+        while ((left = queue.poll()) != null)
+            left.durable.completeExceptionally(new IllegalStateException("Journal is closed"));
+        channel.close();
+    }
+
+    private static class PendingRecord {
+        final Transaction tx;
+        final UUID accountId;
+        final byte[] name;
+        final long balanceMinor;
+        final boolean frozen;
+        final CompletableFuture<Void> durable = new CompletableFuture<>();
+        long lsn;
+
+        PendingRecord(Transaction tx) {
+            this(tx, null, null, 0, false);
+        }
+
+        PendingRecord(Account account) {
+            this(null, account.getId(), account.getName().getBytes(StandardCharsets.UTF_8),
+                    account.getBalanceMinor(), account.isFrozen());
+        }
+
+        PendingRecord() {
+            this(null, null, null, 0, false);
+        }
+
+        private PendingRecord(Transaction tx, UUID accountId, byte[] name, long balanceMinor, boolean frozen) {
+            this.tx = tx;
+            this.accountId = accountId;
+            this.name = name;
+            this.balanceMinor = balanceMinor;
+            this.frozen = frozen;
+        }
+
+        boolean isRotation() {
+            return tx == null && accountId == null;
+        }
+    }
+}
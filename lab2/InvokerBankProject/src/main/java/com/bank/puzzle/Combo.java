@@ -0,0 +1,18 @@
+package com.bank.puzzle;
+
+public enum Combo {
+    QQQ("COLD_FREEZE"), QQW("GHOST_AUDIT"), QQE("SECURE_WALL"),
+    WWW("EMP_TRANSFER"), WWQ("FAST_WITHDRAW"), WWE("SPEED_DEPOSIT"),
+    EEE("SUN_STRIKE"), EEQ("FORGE_ACCOUNT"), EEW("CREDIT_METEOR"),
+    QWE("DEAFENING_REPORT");
+
+    private final String spell;
+
+    Combo(String spell) {
+        this.spell = spell;
+    }
+
+    public String getSpell() {
+        return spell;
+    }
+}
@@ -0,0 +1,50 @@
+package com.bank.puzzle;
+
+import java.util.List;
+
+public class GeneratedLevel {
+    private final PuzzleLevel level;
+    private final List<String> spellLines;
+    private final int optimalCasts;
+    private final long statesWithinDepth;
+    private final double branching;
+
+    GeneratedLevel(PuzzleLevel level, List<String> spellLines, int optimalCasts, long statesWithinDepth) {
+        this.level = level;
+        this.spellLines = List.copyOf(spellLines);
+        this.optimalCasts = optimalCasts;
+        this.statesWithinDepth = statesWithinDepth;
+        this.branching = Math.pow(statesWithinDepth, 1.0 / optimalCasts);
+    }
+
+    public PuzzleLevel getLevel() {
+        return level;
+    }
+
+    public int getOptimalCasts() {
+        return optimalCasts;
+    }
+
+    public long getStatesWithinDepth() {
+        return statesWithinDepth;
+    }
+
+    public double getBranching() {
+        return branching;
+    }
+
+    public double getDifficulty() {
+        return optimalCasts * branching;
+    }
+
+    public String toDsl() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("# casts=%d states=%d branching=%.2f difficulty=%.1f%n", optimalCasts,
+                statesWithinDepth, branching, getDifficulty()));
+        sb.append("level ").append(level.getStartBalance()).append(' ').append(level.getTargetBalance()).append(' ')
+                .append(level.getName()).append(System.lineSeparator());
+        for (String line : spellLines)
+            sb.append(line).append(System.lineSeparator());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,196 @@
+package com.bank.puzzle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+public class LevelGenerator {
+    public static final int SPELLS = 3;
+    public static final int DEFAULT_MIN_CASTS = 4;
+    public static final int DEFAULT_MAX_CASTS = 10;
+    public static final long DEFAULT_MAX_START = 100;
+    public static final int DEFAULT_MAX_STATES = 100_000;
+    public static final int MAX_CANDIDATES_PER_LEVEL = 10_000;
+
+    private static final Combo[] COMBOS = Combo.values();
+    private static final Op[] OPS = Op.values();
+
+    private enum Op {
+        ADD("add", 1, 9, "Add %d", false),
+        SUB("sub", 1, 3, "Sub %d", false),
+        MUL("mul", 2, 4, "Multiply %d", false),
+        HALVE("divexact", 2, 2, "Div 2 (if even)", false),
+        TRUNCATE("div", 10, 10, "Del Last Digit", false),
+        APPEND("append", 1, 9, "Append '%d'", false),
+        SQUARE("square", 0, 0, "Square (x^2)", false),
+        REVERSE("reverse", 0, 0, "Reverse Digits", true),
+        DIGITSUM("digitsum", 0, 0, "Sum Digits", true),
+        ADD_DIGITSUM("add-digitsum", 0, 0, "Add Sum Digits", true);
+
+        final String keyword;
+        final int minArg;
+        final int maxArg;
+        final String description;
+        final boolean memoised;
+
+        Op(String keyword, int minArg, int maxArg, String description, boolean memoised) {
+            this.keyword = keyword;
+            this.minArg = minArg;
+            this.maxArg = maxArg;
+            this.description = description;
+            this.memoised = memoised;
+        }
+
+        boolean hasArgument() {
+            return maxArg > 0;
+        }
+    }
+
+    private final long seed;
+    private final int minCasts;
+    private final int maxCasts;
+    private final long maxBalance;
+    private final int maxStates;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<TransitionCache[]> caches = ThreadLocal.withInitial(() -> new TransitionCache[OPS.length]);
+
+    public LevelGenerator(long seed) {
+        this(seed, DEFAULT_MIN_CASTS, DEFAULT_MAX_CASTS, PuzzleSolver.DEFAULT_MAX_BALANCE, DEFAULT_MAX_STATES,
+                ForkJoinPool.commonPool());
+    }
+
+    public LevelGenerator(long seed, int minCasts, int maxCasts, long maxBalance, int maxStates, ForkJoinPool pool) {
+        if (minCasts < 1 || maxCasts < minCasts)
+            throw new IllegalArgumentException("Need 1 <= minCasts <= maxCasts");
+        this.seed = seed;
+        this.minCasts = minCasts;
+        this.maxCasts = maxCasts;
+        this.maxBalance = maxBalance;
+        this.maxStates = maxStates;
+        this.pool = pool;
+    }
+
+    public List<GeneratedLevel> generate(int count) {
+        List<GeneratedLevel> result = new ArrayList<>(count);
+        long limit = Math.max(256, (long) count * MAX_CANDIDATES_PER_LEVEL);
+        long next = 0;
+        while (result.size() < count) {
+            if (next >= limit)
+                throw new IllegalStateException("Only " + result.size() + " of " + count + " levels after " + limit
+                        + " candidates; widen the casts range or raise maxStates");
+            long from = next;
+            long to = Math.min(limit, from + Math.max(256, 2L * (count - result.size())));
+            next = to;
+            List<GeneratedLevel> accepted = pool.submit(() -> LongStream.range(from, to).parallel()
+                    .mapToObj(this::candidate).filter(Objects::nonNull).collect(Collectors.toList())).join();
+            for (GeneratedLevel level : accepted) {
+                if (result.size() == count)
+                    break;
+                result.add(level);
+            }
+        }
+        return result;
+    }
+
+    public GeneratedLevel candidate(long index) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+        Combo[] combos = COMBOS.clone();
+        for (int i = 0; i < SPELLS; i++) {
+            int j = i + random.nextInt(combos.length - i);
+            Combo c = combos[i];
+            combos[i] = combos[j];
+            combos[j] = c;
+        }
+
+        Op[] ops = new Op[SPELLS];
+        int[] args = new int[SPELLS];
+        for (int i = 0; i < SPELLS; i++) {
+            boolean duplicate;
+            do {
+                ops[i] = OPS[random.nextInt(OPS.length)];
+                args[i] = ops[i].hasArgument() ? random.nextInt(ops[i].minArg, ops[i].maxArg + 1) : 0;
+                duplicate = false;
+                for (int k = 0; k < i; k++)
+                    duplicate |= ops[k] == ops[i];
+            } while (duplicate);
+        }
+
+        LongUnaryOperator[] moves = new LongUnaryOperator[SPELLS];
+        for (int i = 0; i < SPELLS; i++)
+            moves[i] = searchMove(ops[i], args[i]);
+        long start = random.nextLong(DEFAULT_MAX_START);
+
+        StateTable visited = new StateTable(1024);
+        visited.add(start, start, -1);
+        List<long[]> layers = new ArrayList<>();
+        layers.add(new long[]{start});
+        long states = 1;
+        long[] statesUpTo = new long[maxCasts + 1];
+        statesUpTo[0] = 1;
+        for (int depth = 1; depth <= maxCasts && states < maxStates; depth++) {
+            long[] frontier = layers.get(depth - 1);
+            long[] next = new long[16];
+            int size = 0;
+            visited.ensureCapacity(states + (long) frontier.length * SPELLS);
+            for (long state : frontier) {
+                for (int m = 0; m < SPELLS; m++) {
+                    long candidate = apply(moves[m], state);
+                    if (candidate < 0 || candidate > maxBalance || !visited.add(candidate, state, m))
+                        continue;
+                    if (size == next.length)
+                        next = Arrays.copyOf(next, size * 2);
+                    next[size++] = candidate;
+                }
+            }
+            if (size == 0)
+                break;
+            layers.add(Arrays.copyOf(next, size));
+            states += size;
+            statesUpTo[depth] = states;
+        }
+
+        int deepest = layers.size() - 1;
+        if (deepest < minCasts)
+            return null;
+        int depth = minCasts + random.nextInt(deepest - minCasts + 1);
+        long[] layer = layers.get(depth);
+        long target = layer[random.nextInt(layer.length)];
+
+        PuzzleLevel level = new PuzzleLevel("Generated " + index, start, target);
+        List<String> lines = new ArrayList<>(SPELLS);
+        for (int i = 0; i < SPELLS; i++) {
+            String description = ops[i].hasArgument() ? String.format(ops[i].description, args[i]) : ops[i].description;
+            level.spell(combos[i], description, PuzzleLevels.compile(ops[i].keyword,
+                    ops[i].hasArgument() ? String.valueOf(args[i]) : null));
+            lines.add("spell " + combos[i] + " " + ops[i].keyword + (ops[i].hasArgument() ? " " + args[i] : "")
+                    + " | " + description);
+        }
+        return new GeneratedLevel(level, lines, depth, statesUpTo[depth]);
+    }
+
+    private static long apply(LongUnaryOperator move, long state) {
+        try {
+            return move.applyAsLong(state);
+        } catch (ArithmeticException overflow) {
+            return -1;
+        }
+    }
+
+    private LongUnaryOperator searchMove(Op op, int arg) {
+        if (!op.memoised)
+            return PuzzleLevels.compile(op.keyword, op.hasArgument() ? String.valueOf(arg) : null);
+        TransitionCache[] perThread = caches.get();
+        TransitionCache cache = perThread[op.ordinal()];
+        if (cache == null) {
+            cache = new TransitionCache(PuzzleLevels.compile(op.keyword, null));
+            perThread[op.ordinal()] = cache;
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,67 @@
+package com.bank.puzzle;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class LevelGeneratorMain {
+    public static void main(String[] args) throws IOException {
+        int count = 1000;
+        long seed = 1;
+        int minCasts = LevelGenerator.DEFAULT_MIN_CASTS;
+        int maxCasts = LevelGenerator.DEFAULT_MAX_CASTS;
+        int maxStates = LevelGenerator.DEFAULT_MAX_STATES;
+        Path out = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--count" -> count = Integer.parseInt(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--min-casts" -> minCasts = Integer.parseInt(args[i + 1]);
+                case "--max-casts" -> maxCasts = Integer.parseInt(args[i + 1]);
+                case "--max-states" -> maxStates = Integer.parseInt(args[i + 1]);
+                case "--out" -> out = Path.of(args[i + 1]);
+                default -> {
+                    System.out.println("Usage: LevelGeneratorMain [--count 1000] [--seed 1] [--min-casts "
+                            + LevelGenerator.DEFAULT_MIN_CASTS + "] [--max-casts " + LevelGenerator.DEFAULT_MAX_CASTS
+                            + "] [--max-states " + LevelGenerator.DEFAULT_MAX_STATES + "] [--out levels.txt]");
+                    return;
+                }
+            }
+        }
+
+        LevelGenerator generator = new LevelGenerator(seed, minCasts, maxCasts, PuzzleSolver.DEFAULT_MAX_BALANCE,
+                maxStates, ForkJoinPool.commonPool());
+        long started = System.nanoTime();
+        List<GeneratedLevel> levels = new ArrayList<>(generator.generate(count));
+        long elapsed = System.nanoTime() - started;
+        levels.sort(Comparator.comparingDouble(GeneratedLevel::getDifficulty));
+
+        System.out.printf("%d levels in %d ms (%.0f levels/min, %d workers)%n", levels.size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed), levels.size() * 60e9 / Math.max(1, elapsed),
+                ForkJoinPool.commonPool().getParallelism());
+        int[] byCasts = new int[maxCasts + 1];
+        for (GeneratedLevel level : levels)
+            byCasts[level.getOptimalCasts()]++;
+        for (int casts = minCasts; casts <= maxCasts; casts++)
+            System.out.printf("  %2d casts: %d%n", casts, byCasts[casts]);
+        if (!levels.isEmpty()) {
+            System.out.print("Easiest:\n" + levels.get(0).toDsl());
+            System.out.print("Hardest:\n" + levels.get(levels.size() - 1).toDsl());
+        }
+
+        if (out != null) {
+            try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+                for (GeneratedLevel level : levels)
+                    writer.write(level.toDsl() + System.lineSeparator());
+            }
+            System.out.println("Written to " + out + " (load with -Dbank.puzzle.levels=" + out + ")");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bank.puzzle;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class PuzzleLevel {
+    private static final int COMBOS = Combo.values().length;
+
+    private final String name;
+    private final long startBalance;
+    private final long targetBalance;
+    private final PuzzleOp[] moves = new PuzzleOp[COMBOS];
+    private final Map<String, String> spells = new LinkedHashMap<>();
+    private Combo[] allowed = new Combo[0];
+
+    public PuzzleLevel(String name, long startBalance, long targetBalance) {
+        this.name = name;
+        this.startBalance = startBalance;
+        this.targetBalance = targetBalance;
+    }
+
+    public PuzzleLevel spell(Combo combo, String description, PuzzleOp move) {
+        if (moves[combo.ordinal()] != null)
+            throw new IllegalArgumentException("Duplicate spell " + combo + " in level " + name);
+        moves[combo.ordinal()] = move;
+        spells.put(combo.name(), description);
+        allowed = Arrays.copyOf(allowed, allowed.length + 1);
+        allowed[allowed.length - 1] = combo;
+        return this;
+    }
+
+    public boolean allows(Combo combo) {
+        return combo != null && moves[combo.ordinal()] != null;
+    }
+
+    public long apply(Combo combo, long balance) {
+        return move(combo).applyAsLong(balance);
+    }
+
+    public BigInteger apply(Combo combo, BigInteger balance) {
+        return move(combo).applyPromoting(balance);
+    }
+
+    private PuzzleOp move(Combo combo) {
+        PuzzleOp move = moves[combo.ordinal()];
+        if (move == null)
+            throw new IllegalArgumentException("Spell " + combo + " is not allowed in level " + name);
+        return move;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getStartBalance() {
+        return startBalance;
+    }
+
+    public long getTargetBalance() {
+        return targetBalance;
+    }
+
+    public Map<String, String> getSpells() {
+        return Collections.unmodifiableMap(spells);
+    }
+
+    public String getDescription(Combo combo) {
+        return spells.get(combo.name());
+    }
+
+    public int getMoveCount() {
+        return allowed.length;
+    }
+
+    public Combo getCombo(int move) {
+        return allowed[move];
+    }
+
+    public PuzzleOp getMove(int move) {
+        return moves[allowed[move].ordinal()];
+    }
+}
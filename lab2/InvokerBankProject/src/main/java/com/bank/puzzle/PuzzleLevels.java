@@ -0,0 +1,145 @@
+package com.bank.puzzle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PuzzleLevels {
+    public static final String RESOURCE = "/levels/puzzles.txt";
+
+    private static volatile List<PuzzleLevel> levels;
+
+    private PuzzleLevels() {
+    }
+
+    public static List<PuzzleLevel> all() {
+        List<PuzzleLevel> result = levels;
+        if (result == null) {
+            synchronized (PuzzleLevels.class) {
+                result = levels;
+                if (result == null) {
+                    String file = System.getProperty("bank.puzzle.levels");
+                    result = file != null ? load(Path.of(file)) : loadResource(RESOURCE);
+                    levels = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public static List<PuzzleLevel> load(Path file) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader, file.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read levels " + file, e);
+        }
+    }
+
+    public static List<PuzzleLevel> loadResource(String resource) {
+        InputStream in = PuzzleLevels.class.getResourceAsStream(resource);
+        if (in == null)
+            throw new IllegalArgumentException("Levels resource not found: " + resource);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return parse(reader, resource);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read levels " + resource, e);
+        }
+    }
+
+    public static List<PuzzleLevel> parse(BufferedReader reader, String source) throws IOException {
+        List<PuzzleLevel> result = new ArrayList<>();
+        PuzzleLevel level = null;
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            String where = source + ":" + lineNo;
+            String[] words = line.split("\\s+", 4);
+            try {
+                if (words[0].equals("level") && words.length == 4) {
+                    level = new PuzzleLevel(words[3], Long.parseLong(words[1]), Long.parseLong(words[2]));
+                    result.add(level);
+                } else if (words[0].equals("spell") && level != null) {
+                    int bar = line.indexOf('|');
+                    if (bar < 0)
+                        throw new IllegalArgumentException("missing '| description'");
+                    String[] op = line.substring(0, bar).strip().split("\\s+");
+                    if (op.length < 3 || op.length > 4)
+                        throw new IllegalArgumentException("expected 'spell <combo> <op> [arg]'");
+                    level.spell(Combo.valueOf(op[1]), line.substring(bar + 1).strip(),
+                            compile(op[2], op.length == 4 ? op[3] : null));
+                } else {
+                    throw new IllegalArgumentException("unexpected '" + words[0] + "'");
+                }
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                throw new IllegalArgumentException(where + ": " + e.getMessage(), e);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    static PuzzleOp compile(String op, String arg) {
+        switch (op) {
+            case "square":
+                noArgument(op, arg);
+                return PuzzleOp.of(b -> Math.multiplyExact(b, b), b -> b.multiply(b));
+            case "reverse":
+                noArgument(op, arg);
+                return PuzzleOp.of(PuzzleMath::reverse, PuzzleMath::reverse);
+            case "digitsum":
+                noArgument(op, arg);
+                return PuzzleOp.of(PuzzleMath::sumDigits, PuzzleMath::sumDigits);
+            case "add-digitsum":
+                noArgument(op, arg);
+                return PuzzleOp.of(b -> Math.addExact(b, PuzzleMath.sumDigits(b)), b -> b.add(PuzzleMath.sumDigits(b)));
+            default:
+                break;
+        }
+        if (arg == null)
+            throw new IllegalArgumentException("'" + op + "' needs an argument");
+        long n = Long.parseLong(arg);
+        BigInteger big = BigInteger.valueOf(n);
+        switch (op) {
+            case "add":
+                return PuzzleOp.of(b -> Math.addExact(b, n), b -> b.add(big));
+            case "sub":
+                return PuzzleOp.of(b -> Math.subtractExact(b, n), b -> b.subtract(big));
+            case "mul":
+                return PuzzleOp.of(b -> Math.multiplyExact(b, n), b -> b.multiply(big));
+            case "div":
+                positive(op, n);
+                return PuzzleOp.of(b -> b / n, b -> b.divide(big));
+            case "divexact":
+                positive(op, n);
+                return PuzzleOp.of(b -> b % n == 0 ? b / n : b, b -> b.remainder(big).signum() == 0 ? b.divide(big) : b);
+            case "append":
+                if (!arg.matches("0|[1-9][0-9]*"))
+                    throw new IllegalArgumentException("'append' needs plain digits without sign or leading zeros");
+                long shift = PuzzleMath.pow10(arg.length());
+                return PuzzleOp.of(b -> PuzzleMath.append(b, n, shift), b -> PuzzleMath.append(b, n, shift));
+            default:
+                throw new IllegalArgumentException("unknown op '" + op + "'");
+        }
+    }
+
+    private static void noArgument(String op, String arg) {
+        if (arg != null)
+            throw new IllegalArgumentException("'" + op + "' takes no argument");
+    }
+
+    private static void positive(String op, long n) {
+        if (n <= 0)
+            throw new IllegalArgumentException("'" + op + "' needs a positive argument");
+    }
+}
@@ -0,0 +1,56 @@
+package com.bank.puzzle;
+
+import java.math.BigInteger;
+
+public final class PuzzleMath {
+    private PuzzleMath() {
+    }
+
+    public static long append(long value, long digits, long shift) {
+        long shifted = Math.multiplyExact(value, shift);
+        return Math.addExact(shifted, value < 0 ? -digits : digits);
+    }
+
+    public static BigInteger append(BigInteger value, long digits, long shift) {
+        BigInteger shifted = value.multiply(BigInteger.valueOf(shift));
+        return value.signum() < 0 ? shifted.subtract(BigInteger.valueOf(digits)) : shifted.add(BigInteger.valueOf(digits));
+    }
+
+    public static long reverse(long value) {
+        long r = 0;
+        while (value != 0) {
+            r = Math.addExact(Math.multiplyExact(r, 10), value % 10);
+            value /= 10;
+        }
+        return r;
+    }
+
+    public static BigInteger reverse(BigInteger value) {
+        String digits = new StringBuilder(value.abs().toString()).reverse().toString();
+        BigInteger r = new BigInteger(digits);
+        return value.signum() < 0 ? r.negate() : r;
+    }
+
+    public static long sumDigits(long value) {
+        long s = 0;
+        while (value != 0) {
+            s += Math.abs(value % 10);
+            value /= 10;
+        }
+        return s;
+    }
+
+    public static BigInteger sumDigits(BigInteger value) {
+        long s = 0;
+        for (char c : value.abs().toString().toCharArray())
+            s += c - '0';
+        return BigInteger.valueOf(s);
+    }
+
+    public static long pow10(int exponent) {
+        long p = 1;
+        for (int i = 0; i < exponent; i++)
+            p = Math.multiplyExact(p, 10);
+        return p;
+    }
+}
@@ -0,0 +1,36 @@
+package com.bank.puzzle;
+
+import java.math.BigInteger;
+import java.util.function.LongUnaryOperator;
+import java.util.function.UnaryOperator;
+
+public interface PuzzleOp extends LongUnaryOperator {
+    @Override
+    long applyAsLong(long value);
+
+    BigInteger apply(BigInteger value);
+
+    default BigInteger applyPromoting(BigInteger value) {
+        if (value.bitLength() >= Long.SIZE)
+            return apply(value);
+        try {
+            return BigInteger.valueOf(applyAsLong(value.longValue()));
+        } catch (ArithmeticException overflow) {
+            return apply(value);
+        }
+    }
+
+    static PuzzleOp of(LongUnaryOperator exact, UnaryOperator<BigInteger> wide) {
+        return new PuzzleOp() {
+            @Override
+            public long applyAsLong(long value) {
+                return exact.applyAsLong(value);
+            }
+
+            @Override
+            public BigInteger apply(BigInteger value) {
+                return wide.apply(value);
+            }
+        };
+    }
+}
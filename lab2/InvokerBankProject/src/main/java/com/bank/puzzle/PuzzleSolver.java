@@ -0,0 +1,138 @@
+package com.bank.puzzle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongUnaryOperator;
+
+public class PuzzleSolver {
+    public static final long DEFAULT_MAX_BALANCE = 100_000_000L;
+    public static final int DEFAULT_MAX_STATES = 10_000_000;
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int CHUNK = 1024;
+
+    private final long maxBalance;
+    private final int maxStates;
+    private final ForkJoinPool pool;
+
+    public PuzzleSolver() {
+        this(DEFAULT_MAX_BALANCE, DEFAULT_MAX_STATES, ForkJoinPool.commonPool());
+    }
+
+    public PuzzleSolver(long maxBalance, int maxStates, ForkJoinPool pool) {
+        this.maxBalance = maxBalance;
+        this.maxStates = maxStates;
+        this.pool = pool;
+    }
+
+    public Solution solve(PuzzleLevel level) {
+        long started = System.nanoTime();
+        long start = level.getStartBalance();
+        long target = level.getTargetBalance();
+        LongUnaryOperator[] moves = new LongUnaryOperator[level.getMoveCount()];
+        for (int i = 0; i < moves.length; i++)
+            moves[i] = level.getMove(i);
+
+        StateTable visited = new StateTable(1024);
+        visited.add(start, start, -1);
+        visited.addCount(1);
+        if (start == target)
+            return new Solution(level, List.of(), true, false, 1, System.nanoTime() - started);
+
+        long[] frontier = {start};
+        while (frontier.length > 0) {
+            if (visited.size() >= maxStates)
+                return new Solution(level, List.of(), false, false, visited.size(), System.nanoTime() - started);
+            visited.ensureCapacity(visited.size() + (long) frontier.length * moves.length);
+            Expand expand = new Expand(visited, moves, frontier, 0, frontier.length);
+            Frontier next = frontier.length >= PARALLEL_THRESHOLD ? pool.invoke(expand) : expand.compute();
+            visited.addCount(next.size);
+            frontier = Arrays.copyOf(next.values, next.size);
+            for (long state : frontier) {
+                if (state == target)
+                    return new Solution(level, path(level, visited, start, target), true, false, visited.size(),
+                            System.nanoTime() - started);
+            }
+        }
+        return new Solution(level, List.of(), false, true, visited.size(), System.nanoTime() - started);
+    }
+
+    private static List<String> path(PuzzleLevel level, StateTable visited, long start, long target) {
+        List<String> combos = new ArrayList<>();
+        for (long state = target; state != start; state = visited.parentOf(state))
+            combos.add(level.getCombo(visited.moveOf(state)).name());
+        Collections.reverse(combos);
+        return combos;
+    }
+
+    private long next(LongUnaryOperator move, long state) {
+        long next;
+        try {
+            next = move.applyAsLong(state);
+        } catch (ArithmeticException overflow) {
+            return -1;
+        }
+        return next > maxBalance ? -1 : next;
+    }
+
+    private static class Frontier {
+        long[] values = new long[16];
+        int size;
+
+        void add(long value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        Frontier merge(Frontier other) {
+            if (values.length < size + other.size)
+                values = Arrays.copyOf(values, size + other.size);
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            return this;
+        }
+    }
+
+    private class Expand extends RecursiveTask<Frontier> {
+        private static final long serialVersionUID = 1L;
+
+        private final StateTable visited;
+        private final LongUnaryOperator[] moves;
+        private final long[] frontier;
+        private final int from;
+        private final int to;
+
+        Expand(StateTable visited, LongUnaryOperator[] moves, long[] frontier, int from, int to) {
+            this.visited = visited;
+            this.moves = moves;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Frontier compute() {
+            if (to - from > CHUNK && frontier.length >= PARALLEL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                Expand left = new Expand(visited, moves, frontier, from, mid);
+                left.fork();
+                Frontier right = new Expand(visited, moves, frontier, mid, to).compute();
+                return left.join().merge(right);
+            }
+            Frontier next = new Frontier();
+            for (int i = from; i < to; i++) {
+                long state = frontier[i];
+                for (int m = 0; m < moves.length; m++) {
+                    long candidate = next(moves[m], state);
+                    if (candidate >= 0 && visited.add(candidate, state, m))
+                        next.add(candidate);
+                }
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.bank.puzzle;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class PuzzleSolverMain {
+    public static void main(String[] args) {
+        long maxBalance = PuzzleSolver.DEFAULT_MAX_BALANCE;
+        int maxStates = PuzzleSolver.DEFAULT_MAX_STATES;
+        int only = 0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--max-balance" -> maxBalance = Long.parseLong(args[i + 1]);
+                case "--max-states" -> maxStates = Integer.parseInt(args[i + 1]);
+                case "--level" -> only = Integer.parseInt(args[i + 1]);
+                default -> {
+                    System.out.println("Usage: PuzzleSolverMain [--level N] [--max-balance "
+                            + PuzzleSolver.DEFAULT_MAX_BALANCE + "] [--max-states " + PuzzleSolver.DEFAULT_MAX_STATES + "]");
+                    return;
+                }
+            }
+        }
+
+        PuzzleSolver solver = new PuzzleSolver(maxBalance, maxStates, ForkJoinPool.commonPool());
+        List<PuzzleLevel> levels = PuzzleLevels.all();
+        for (int i = 0; i < levels.size(); i++) {
+            if (only == 0 || only == i + 1)
+                System.out.println(solver.solve(levels.get(i)));
+        }
+    }
+}
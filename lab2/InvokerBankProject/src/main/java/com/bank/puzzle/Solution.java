@@ -0,0 +1,60 @@
+package com.bank.puzzle;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class Solution {
+    private final PuzzleLevel level;
+    private final List<String> combos;
+    private final boolean solved;
+    private final boolean exhausted;
+    private final long reachableStates;
+    private final long elapsedNanos;
+
+    Solution(PuzzleLevel level, List<String> combos, boolean solved, boolean exhausted, long reachableStates,
+             long elapsedNanos) {
+        this.level = level;
+        this.combos = List.copyOf(combos);
+        this.solved = solved;
+        this.exhausted = exhausted;
+        this.reachableStates = reachableStates;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public PuzzleLevel getLevel() {
+        return level;
+    }
+
+    public List<String> getCombos() {
+        return combos;
+    }
+
+    public boolean isSolved() {
+        return solved;
+    }
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    public long getReachableStates() {
+        return reachableStates;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        String outcome;
+        if (solved)
+            outcome = combos.size() + " casts " + combos;
+        else if (exhausted)
+            outcome = "unreachable within the balance bound";
+        else
+            outcome = "no solution within limits";
+        return String.format("%s: %d -> %d, %s, %d states, %d ms", level.getName(), level.getStartBalance(),
+                level.getTargetBalance(), outcome, reachableStates, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+}
@@ -0,0 +1,96 @@
+package com.bank.puzzle;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class StateTable {
+    static final long EMPTY = Long.MIN_VALUE;
+
+    private AtomicLongArray keys;
+    private long[] parents;
+    private byte[] moves;
+    private int mask;
+    private int size;
+
+    StateTable(int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    private static int capacityFor(long states) {
+        long capacity = Long.highestOneBit(Math.max(16, states * 2 - 1)) << 1;
+        if (capacity > 1 << 30)
+            throw new IllegalStateException("Too many states: " + states);
+        return (int) capacity;
+    }
+
+    private void allocate(int capacity) {
+        keys = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++)
+            keys.setPlain(i, EMPTY);
+        parents = new long[capacity];
+        moves = new byte[capacity];
+        mask = capacity - 1;
+    }
+
+    void ensureCapacity(long states) {
+        if (states * 2 <= keys.length())
+            return;
+        AtomicLongArray oldKeys = keys;
+        long[] oldParents = parents;
+        byte[] oldMoves = moves;
+        allocate(capacityFor(states));
+        for (int i = 0; i < oldKeys.length(); i++) {
+            long key = oldKeys.getPlain(i);
+            if (key != EMPTY)
+                add(key, oldParents[i], oldMoves[i]);
+        }
+    }
+
+    boolean add(long state, long parent, int move) {
+        for (int i = slot(state); ; i = (i + 1) & mask) {
+            long key = keys.get(i);
+            if (key == state)
+                return false;
+            if (key == EMPTY) {
+                if (!keys.compareAndSet(i, EMPTY, state)) {
+                    if (keys.get(i) == state)
+                        return false;
+                    continue;
+                }
+                parents[i] = parent;
+                moves[i] = (byte) move;
+                return true;
+            }
+        }
+    }
+
+    void addCount(int added) {
+        size += added;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long parentOf(long state) {
+        return parents[find(state)];
+    }
+
+    int moveOf(long state) {
+        return moves[find(state)];
+    }
+
+    private int find(long state) {
+        for (int i = slot(state); ; i = (i + 1) & mask) {
+            long key = keys.get(i);
+            if (key == state)
+                return i;
+            if (key == EMPTY)
+                throw new IllegalArgumentException("Unknown state " + state);
+        }
+    }
+
+    private int slot(long state) {
+        long h = state * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
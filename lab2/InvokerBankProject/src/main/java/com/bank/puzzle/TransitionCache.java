@@ -0,0 +1,28 @@
+package com.bank.puzzle;
+
+import java.util.Arrays;
+import java.util.function.LongUnaryOperator;
+
+class TransitionCache implements LongUnaryOperator {
+    private static final int SIZE = 1 << 14;
+
+    private final LongUnaryOperator move;
+    private final long[] keys = new long[SIZE];
+    private final long[] values = new long[SIZE];
+
+    TransitionCache(LongUnaryOperator move) {
+        this.move = move;
+        Arrays.fill(keys, StateTable.EMPTY);
+    }
+
+    @Override
+    public long applyAsLong(long state) {
+        int slot = (int) (state ^ (state >>> 32)) & (SIZE - 1);
+        if (keys[slot] == state)
+            return values[slot];
+        long next = move.applyAsLong(state);
+        keys[slot] = state;
+        values[slot] = next;
+        return next;
+    }
+}
@@ -0,0 +1,118 @@
+package com.bank.service;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+class AdmissionControl {
+    // per-account limits live in a fixed stripe table; accounts that share a stripe share its permits
+    static final int ACCOUNT_STRIPES = 4096;
+
+    private final int capacity;
+    private final Semaphore pending;
+    private final int perAccountLimit;
+    private final Semaphore[] perAccount;
+    private final long timeoutNanos;
+    private volatile boolean closed;
+
+    AdmissionControl(int maxPending, int maxPendingPerAccount, long timeoutMillis) {
+        this.capacity = maxPending > 0 ? maxPending : Integer.MAX_VALUE;
+        this.pending = new Semaphore(capacity);
+        this.perAccountLimit = maxPendingPerAccount;
+        this.perAccount = new Semaphore[perAccountLimit > 0 ? ACCOUNT_STRIPES : 0];
+        for (int i = 0; i < perAccount.length; i++)
+            perAccount[i] = new Semaphore(perAccountLimit);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMillis));
+    }
+
+    boolean tryAdmit(UUID accountId) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        if (closed || !acquire(pending, 1, deadline))
+            return false;
+        if (closed) {
+            pending.release();
+            return false;
+        }
+        if (accountId != null && perAccountLimit > 0 && !acquire(perAccount[stripeOf(accountId)], 1, deadline)) {
+            pending.release();
+            return false;
+        }
+        return true;
+    }
+
+    void release(UUID accountId) {
+        if (accountId != null && perAccountLimit > 0)
+            perAccount[stripeOf(accountId)].release();
+        pending.release();
+    }
+
+    boolean tryAdmit(int transactions, Collection<UUID> accountIds) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        if (closed || transactions > capacity || !acquire(pending, transactions, deadline))
+            return false;
+        if (closed) {
+            pending.release(transactions);
+            return false;
+        }
+        if (perAccountLimit <= 0)
+            return true;
+        int[] stripes = stripesOf(accountIds);
+        for (int i = 0; i < stripes.length; i++) {
+            if (!acquire(perAccount[stripes[i]], 1, deadline)) {
+                for (int k = 0; k < i; k++)
+                    perAccount[stripes[k]].release();
+                pending.release(transactions);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void release(int transactions, Collection<UUID> accountIds) {
+        if (perAccountLimit > 0) {
+            for (int stripe : stripesOf(accountIds))
+                perAccount[stripe].release();
+        }
+        pending.release(transactions);
+    }
+
+    int pending() {
+        return capacity - pending.availablePermits();
+    }
+
+    boolean drain(long timeout, TimeUnit unit) {
+        closed = true;
+        try {
+            return pending.tryAcquire(capacity, timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    static int stripeOf(UUID accountId) {
+        int h = accountId.hashCode();
+        h ^= (h >>> 16);
+        return h & (ACCOUNT_STRIPES - 1);
+    }
+
+    // distinct stripes in ascending order, so a batch takes each stripe once and always in the same order
+    private static int[] stripesOf(Collection<UUID> accountIds) {
+        return accountIds.stream().mapToInt(AdmissionControl::stripeOf).sorted().distinct().toArray();
+    }
+
+    private static boolean acquire(Semaphore semaphore, int permits, long deadline) {
+        if (semaphore.tryAcquire(permits))
+            return true;
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0)
+            return false;
+        try {
+            return semaphore.tryAcquire(permits, remaining, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.bank.service;
+
+import com.bank.patterns.BackpressurePolicy;
+
+import java.nio.file.Path;
+
+public class BankConfig {
+    private EngineMode engineMode = EngineMode.LOCKING;
+    private ExecutionMode executionMode = ExecutionMode.FIXED_POOL;
+    private int workerThreads = 10;
+    private int lockStripes = 256;
+    private int shardCount = Runtime.getRuntime().availableProcessors();
+    private Path journalPath;
+    private long checkpointIntervalSeconds;
+    private int observerQueueCapacity = 1024;
+    private BackpressurePolicy observerPolicy = BackpressurePolicy.DROP;
+    private boolean consoleAudit = true;
+    private boolean jmxEnabled = true;
+    private boolean indexEnabled;
+    private int maxPending = 100_000;
+    private int maxPendingPerAccount = 4096;
+    private long admissionTimeoutMillis;
+    private long hotFlushMillis = 100;
+    private int idempotencyCapacity = 100_000;
+    private long idempotencyTtlSeconds = 600;
+
+    public static BankConfig defaults() {
+        return new BankConfig();
+    }
+
+    public static BankConfig fromSystemProperties() {
+        BankConfig config = new BankConfig();
+        String mode = System.getProperty("bank.engine");
+        if (mode != null)
+            config.engineMode = EngineMode.valueOf(mode.trim().toUpperCase());
+        String execution = System.getProperty("bank.execution");
+        if (execution != null)
+            config.executionMode = ExecutionMode.valueOf(execution.trim().toUpperCase());
+        config.workerThreads = Integer.getInteger("bank.workers", config.workerThreads);
+        config.lockStripes = Integer.getInteger("bank.lockStripes", config.lockStripes);
+        config.shardCount = Integer.getInteger("bank.shards", config.shardCount);
+        String journal = System.getProperty("bank.journal");
+        if (journal != null && !journal.isBlank())
+            config.journalPath = Path.of(journal);
+        config.checkpointIntervalSeconds = Long.getLong("bank.checkpointSeconds", config.checkpointIntervalSeconds);
+        config.observerQueueCapacity = Integer.getInteger("bank.observerCapacity", config.observerQueueCapacity);
+        config.consoleAudit = Boolean.parseBoolean(System.getProperty("bank.consoleAudit", "true"));
+        config.jmxEnabled = Boolean.parseBoolean(System.getProperty("bank.jmx", "true"));
+        config.indexEnabled = Boolean.parseBoolean(System.getProperty("bank.index", "false"));
+        config.maxPending = Integer.getInteger("bank.maxPending", config.maxPending);
+        config.maxPendingPerAccount = Integer.getInteger("bank.maxPendingPerAccount", config.maxPendingPerAccount);
+        config.admissionTimeoutMillis = Long.getLong("bank.admissionTimeoutMillis", config.admissionTimeoutMillis);
+        config.hotFlushMillis = Long.getLong("bank.hotFlushMillis", config.hotFlushMillis);
+        config.idempotencyCapacity = Integer.getInteger("bank.idempotencyCapacity", config.idempotencyCapacity);
+        config.idempotencyTtlSeconds = Long.getLong("bank.idempotencyTtlSeconds", config.idempotencyTtlSeconds);
+        String policy = System.getProperty("bank.observerPolicy");
+        if (policy != null)
+            config.observerPolicy = BackpressurePolicy.valueOf(policy.trim().toUpperCase());
+        return config;
+    }
+
+    public BankConfig withEngineMode(EngineMode engineMode) {
+        this.engineMode = engineMode;
+        return this;
+    }
+
+    public BankConfig withExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+        return this;
+    }
+
+    public BankConfig withWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+        return this;
+    }
+
+    public BankConfig withLockStripes(int lockStripes) {
+        this.lockStripes = lockStripes;
+        return this;
+    }
+
+    public BankConfig withShardCount(int shardCount) {
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    public BankConfig withJournal(Path journalPath) {
+        this.journalPath = journalPath;
+        return this;
+    }
+
+    public BankConfig withCheckpointInterval(long seconds) {
+        this.checkpointIntervalSeconds = seconds;
+        return this;
+    }
+
+    public BankConfig withObservers(int queueCapacity, BackpressurePolicy policy) {
+        this.observerQueueCapacity = queueCapacity;
+        this.observerPolicy = policy;
+        return this;
+    }
+
+    public BankConfig withConsoleAudit(boolean consoleAudit) {
+        this.consoleAudit = consoleAudit;
+        return this;
+    }
+
+    public BankConfig withJmx(boolean jmxEnabled) {
+        this.jmxEnabled = jmxEnabled;
+        return this;
+    }
+
+    public BankConfig withIndex(boolean indexEnabled) {
+        this.indexEnabled = indexEnabled;
+        return this;
+    }
+
+    // a non-zero timeout parks the thread calling processTransaction while the limits are full; that thread may be
+    // the gateway's selector loop or the JavaFX thread, so keep it at 0 there and let callers retry on REJECTED
+    public BankConfig withAdmission(int maxPending, int maxPendingPerAccount, long timeoutMillis) {
+        this.maxPending = maxPending;
+        this.maxPendingPerAccount = maxPendingPerAccount;
+        this.admissionTimeoutMillis = timeoutMillis;
+        return this;
+    }
+
+    public BankConfig withHotFlushInterval(long millis) {
+        this.hotFlushMillis = millis;
+        return this;
+    }
+
+    public BankConfig withIdempotency(int capacity, long ttlSeconds) {
+        this.idempotencyCapacity = capacity;
+        this.idempotencyTtlSeconds = ttlSeconds;
+        return this;
+    }
+
+    public EngineMode getEngineMode() {
+        return engineMode;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public Path getJournalPath() {
+        return journalPath;
+    }
+
+    public Path getSnapshotPath() {
+        return journalPath == null ? null : journalPath.resolveSibling(journalPath.getFileName() + ".snapshot");
+    }
+
+    public long getCheckpointIntervalSeconds() {
+        return checkpointIntervalSeconds;
+    }
+
+    public int getObserverQueueCapacity() {
+        return observerQueueCapacity;
+    }
+
+    public BackpressurePolicy getObserverPolicy() {
+        return observerPolicy;
+    }
+
+    public boolean isConsoleAudit() {
+        return consoleAudit;
+    }
+
+    public boolean isJmxEnabled() {
+        return jmxEnabled;
+    }
+
+    public boolean isIndexEnabled() {
+        return indexEnabled;
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    public int getMaxPendingPerAccount() {
+        return maxPendingPerAccount;
+    }
+
+    public long getAdmissionTimeoutMillis() {
+        return admissionTimeoutMillis;
+    }
+
+    public long getHotFlushMillis() {
+        return hotFlushMillis;
+    }
+
+    public int getIdempotencyCapacity() {
+        return idempotencyCapacity;
+    }
+
+    public long getIdempotencyTtlSeconds() {
+        return idempotencyTtlSeconds;
+    }
+}
@@ -1,42 +1,210 @@
 package com.bank.service;
 
+import com.bank.index.TransactionIndex;
+import com.bank.metrics.BankMetrics;
 import com.bank.model.Account;
+import com.bank.model.FailureReason;
 import com.bank.model.Transaction;
+import com.bank.model.TransactionFailedException;
+import com.bank.model.TransactionResult;
 import com.bank.model.User;
 import com.bank.patterns.*;
+import com.bank.persistence.AccountSnapshot;
+import com.bank.persistence.TransactionJournal;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.*;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BankService {
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
     private static BankService instance;
     private final Map<UUID, Account> accountRepository = new ConcurrentHashMap<>();
-    private final Map<UUID, Lock> accountLocks = new ConcurrentHashMap<>();
-    private final ExecutorService executor = Executors.newFixedThreadPool(10);
-    private final List<TransactionObserver> observers = new ArrayList<>();
+    private final TransactionEngine engine;
+    private final TransactionJournal journal;
+    private final Path snapshotPath;
+    private final CutBarrier cut = new CutBarrier();
+    private final ObserverDispatcher observers;
+    private final BankMetrics metrics;
+    private final IdempotencyCache idempotency;
+    private final TransactionIndex index;
+    private final AdmissionControl admission;
+    private ObjectName metricsName;
+    private ScheduledExecutorService checkpointScheduler;
+    private final Set<Account> hotAccounts = ConcurrentHashMap.newKeySet();
+    private final long hotFlushMillis;
+    private ScheduledExecutorService flushScheduler;
+
+    private BankService(BankConfig config) {
+        this.snapshotPath = config.getSnapshotPath();
+        this.hotFlushMillis = config.getHotFlushMillis();
+        this.journal = openJournal(config);
+        this.engine = switch (config.getEngineMode()) {
+            case LOCKING -> new LockingEngine(this, config);
+            case SHARDED -> new ShardedEngine(this, config);
+        };
+        this.metrics = new BankMetrics(engine::queueDepth, engine.lockStripes());
+        if (config.isJmxEnabled())
+            registerMetrics();
+        this.admission = new AdmissionControl(config.getMaxPending(), config.getMaxPendingPerAccount(),
+                config.getAdmissionTimeoutMillis());
+        this.idempotency = config.getIdempotencyCapacity() > 0
+                ? new IdempotencyCache(config.getIdempotencyCapacity(),
+                        TimeUnit.SECONDS.toNanos(config.getIdempotencyTtlSeconds()))
+                : null;
+        this.observers = new ObserverDispatcher(config.getObserverQueueCapacity(), config.getObserverPolicy());
+        this.index = config.isIndexEnabled() ? new TransactionIndex() : null;
+        if (index != null)
+            observers.subscribe(index, BackpressurePolicy.BLOCK);
+        if (config.isConsoleAudit())
+            observers.subscribe(tx -> System.out.println("[AUDIT] Tx: " + tx.getAction() + " ID: " + tx.getId()));
+        if (journal != null && config.getCheckpointIntervalSeconds() > 0)
+            scheduleCheckpoints(config.getCheckpointIntervalSeconds());
+    }
+
+    private TransactionJournal openJournal(BankConfig config) {
+        if (config.getJournalPath() == null)
+            return null;
+        try {
+            long snapshotLsn = AccountSnapshot.load(snapshotPath, accountRepository);
+            long lastLsn = TransactionJournal.recover(config.getJournalPath(), accountRepository, snapshotLsn);
+            return TransactionJournal.open(config.getJournalPath(), lastLsn);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal " + config.getJournalPath(), e);
+        }
+    }
 
-    private BankService() {
-        observers.add(tx -> System.out.println("[AUDIT] Tx: " + tx.getAction() + " ID: " + tx.getId()));
+    private void registerMetrics() {
+        try {
+            ObjectName name = new ObjectName("com.bank:type=BankMetrics,instance=" + INSTANCES.getAndIncrement());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+            metricsName = name;
+        } catch (JMException e) {
+            System.err.println("Metrics not exported to JMX: " + e.getMessage());
+        }
+    }
+
+    private void scheduleCheckpoints(long intervalSeconds) {
+        checkpointScheduler = daemonScheduler("bank-checkpoint");
+        checkpointScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (RuntimeException e) {
+                System.err.println("Checkpoint Failed: " + e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private static ScheduledExecutorService daemonScheduler(String name) {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
     }
 
     public static synchronized BankService getInstance() {
         if (instance == null)
-            instance = new BankService();
+            instance = new BankService(BankConfig.fromSystemProperties());
         return instance;
     }
 
-    public void registerUser(User user) {
-        for (Account acc : user.getAccounts()) {
-            accountRepository.put(acc.getId(), acc);
-            accountLocks.put(acc.getId(), new ReentrantLock());
+    public static BankService create(BankConfig config) {
+        return new BankService(config);
+    }
+
+    public synchronized void registerUser(User user) {
+        if (index != null)
+            index.registerUser(user);
+        Map<Account, CompletableFuture<Void>> durable = new HashMap<>();
+        long stamp = enterUpdate();
+        try {
+            for (Account acc : user.getAccounts()) {
+                if (accountRepository.containsKey(acc.getId()))
+                    continue;
+                if (journal != null)
+                    durable.put(acc, journal.appendAccount(acc));
+                accountRepository.put(acc.getId(), acc);
+            }
+        } finally {
+            exitUpdate(stamp);
+        }
+        for (Map.Entry<Account, CompletableFuture<Void>> entry : durable.entrySet()) {
+            try {
+                entry.getValue().join();
+            } catch (CompletionException e) {
+                accountRepository.remove(entry.getKey().getId(), entry.getKey());
+                throw new IllegalStateException("Cannot journal account " + entry.getKey().getId(), e.getCause());
+            }
+        }
+    }
+
+    public synchronized long checkpoint() {
+        if (journal == null)
+            throw new IllegalStateException("Checkpoints require a journal");
+        Map<UUID, Account> image = new HashMap<>();
+        long lsn;
+        CompletableFuture<Void> rotated;
+        long stamp = cut.cut();
+        try {
+            for (Account acc : accountRepository.values()) {
+                Account copy = new Account(acc.getId(), acc.getName());
+                copy.setBalanceMinor(acc.getBalanceMinor());
+                copy.setFrozen(acc.isFrozen());
+                image.put(copy.getId(), copy);
+            }
+            for (Transaction pending : engine.inFlightTransfers()) {
+                Account source = image.get(pending.getAccountId());
+                if (source != null)
+                    source.forceCredit(pending.getAmountMinor());
+            }
+            lsn = journal.getLastLsn();
+            rotated = journal.rotate();
+        } finally {
+            cut.release(stamp);
+        }
+        try {
+            AccountSnapshot.write(snapshotPath, lsn, image.values());
+            rotated.join();
+            journal.deleteSegmentsUpTo(lsn);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write snapshot " + snapshotPath, e);
+        }
+        return lsn;
+    }
+
+    public synchronized void markHot(UUID accountId) {
+        Account account = accountRepository.get(accountId);
+        if (account == null)
+            throw new IllegalArgumentException("Account not found: " + accountId);
+        account.enableHotCredits();
+        hotAccounts.add(account);
+        if (flushScheduler == null && hotFlushMillis > 0) {
+            flushScheduler = daemonScheduler("bank-hot-flush");
+            flushScheduler.scheduleWithFixedDelay(this::flushHotAccounts, hotFlushMillis, hotFlushMillis,
+                    TimeUnit.MILLISECONDS);
         }
     }
 
+    private void flushHotAccounts() {
+        for (Account account : hotAccounts)
+            account.flushCredits();
+    }
+
     public Account createDemoAccountIfNeeded() {
         if (accountRepository.isEmpty()) {
             User u = new User("InvokerMain");
@@ -49,43 +217,265 @@ public class BankService {
     }
 
     public CompletableFuture<Void> processTransaction(Transaction tx) {
-        return CompletableFuture.runAsync(() -> {
-            UUID accId = tx.getAccountId();
-            Lock lock = accountLocks.get(accId);
-            Lock targetLock = (tx.getTargetAccountId() != null) ? accountLocks.get(tx.getTargetAccountId()) : null;
+        CompletableFuture<Void> outcome = null;
+        if (idempotency != null) {
+            outcome = new CompletableFuture<>();
+            CompletableFuture<Void> original = idempotency.putIfAbsent(tx.getId(), outcome);
+            if (original != null) {
+                metrics.duplicate();
+                return original.copy();
+            }
+        }
+        UUID account = trackedAccount(tx);
+        if (!admission.tryAdmit(account)) {
+            metrics.rejected();
+            TransactionFailedException rejection = rejection();
+            release(tx, outcome, rejection);
+            return CompletableFuture.failedFuture(rejection);
+        }
+        long start = System.nanoTime();
+        metrics.started();
+        CompletableFuture<Void> result;
+        try {
+            result = engine.submit(tx);
+        } catch (RuntimeException e) {
+            admission.release(account);
+            metrics.failed(tx.getAction(), System.nanoTime() - start, FailureReason.of(e));
+            release(tx, outcome, e);
+            throw e;
+        }
+        CompletableFuture<Void> claimed = outcome;
+        result.whenComplete((v, ex) -> {
+            admission.release(account);
+            if (ex == null)
+                metrics.succeeded(tx.getAction(), System.nanoTime() - start);
+            else
+                metrics.failed(tx.getAction(), System.nanoTime() - start, FailureReason.of(ex));
+            if (claimed != null)
+                settle(claimed, ex);
+        });
+        return result;
+    }
 
-            try {
-                if (lock != null)
-                    lock.lock();
-                if (targetLock != null)
-                    targetLock.lock();
-
-                Account account = accountRepository.get(accId);
-                if (account == null)
-                    throw new IllegalArgumentException("Account not found");
-
-                TransactionStrategy strategy = StrategyFactory.getStrategy(tx.getAction());
-                strategy.execute(account, tx, accountRepository);
-                notifyObservers(tx);
-
-            } catch (Exception e) {
-                System.err.println("Tx Failed: " + e.getMessage());
-                throw new RuntimeException(e);
-            } finally {
-                if (targetLock != null)
-                    targetLock.unlock();
-                if (lock != null)
-                    lock.unlock();
+    public CompletableFuture<List<TransactionResult>> processBatch(List<Transaction> batch) {
+        if (batch.isEmpty())
+            return CompletableFuture.completedFuture(List.of());
+        if (idempotency == null)
+            return submitBatch(List.copyOf(batch));
+
+        List<Transaction> fresh = new ArrayList<>(batch.size());
+        List<CompletableFuture<Void>> claimed = new ArrayList<>(batch.size());
+        List<CompletableFuture<Void>> originals = new ArrayList<>(batch.size());
+        for (Transaction tx : batch) {
+            CompletableFuture<Void> outcome = new CompletableFuture<>();
+            CompletableFuture<Void> original = idempotency.putIfAbsent(tx.getId(), outcome);
+            if (original == null) {
+                fresh.add(tx);
+                claimed.add(outcome);
+            } else {
+                metrics.duplicate();
+            }
+            originals.add(original);
+        }
+
+        CompletableFuture<List<TransactionResult>> submitted;
+        try {
+            submitted = fresh.isEmpty() ? CompletableFuture.completedFuture(List.of()) : submitBatch(fresh);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < fresh.size(); i++)
+                release(fresh.get(i), claimed.get(i), e);
+            throw e;
+        }
+        return submitted.handle((results, ex) -> {
+            for (int i = 0; i < fresh.size(); i++) {
+                TransactionResult r = results != null ? results.get(i) : null;
+                if (r == null && FailureReason.of(ex) == FailureReason.REJECTED)
+                    release(fresh.get(i), claimed.get(i), ex);
+                else if (r == null)
+                    settle(claimed.get(i), ex);
+                else if (r.isSuccess())
+                    claimed.get(i).complete(null);
+                else
+                    claimed.get(i).completeExceptionally(new TransactionFailedException(r.getReason(), r.getError()));
             }
-        }, executor);
+            if (ex != null)
+                throw ex instanceof CompletionException ? (CompletionException) ex : new CompletionException(ex);
+            return results;
+        }).thenCompose(results -> {
+            List<CompletableFuture<TransactionResult>> merged = new ArrayList<>(batch.size());
+            int next = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                Transaction tx = batch.get(i);
+                CompletableFuture<Void> original = originals.get(i);
+                if (original == null)
+                    merged.add(CompletableFuture.completedFuture(results.get(next++)));
+                else
+                    merged.add(original.handle((v, ex) ->
+                            ex == null ? TransactionResult.success(tx) : TransactionResult.failure(tx, ex)));
+            }
+            return CompletableFuture.allOf(merged.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(v -> merged.stream().map(CompletableFuture::join).toList());
+        });
     }
 
-    private void notifyObservers(Transaction tx) {
-        for (TransactionObserver obs : observers)
-            obs.onTransactionCompleted(tx);
+    private CompletableFuture<List<TransactionResult>> submitBatch(List<Transaction> batch) {
+        Set<UUID> accounts = new TreeSet<>();
+        for (Transaction tx : batch) {
+            UUID account = trackedAccount(tx);
+            if (account != null)
+                accounts.add(account);
+        }
+        if (!admission.tryAdmit(batch.size(), accounts)) {
+            for (int i = 0; i < batch.size(); i++)
+                metrics.rejected();
+            return CompletableFuture.failedFuture(rejection());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++)
+            metrics.started();
+        CompletableFuture<List<TransactionResult>> submitted;
+        try {
+            submitted = engine.submitBatch(batch);
+        } catch (RuntimeException e) {
+            admission.release(batch.size(), accounts);
+            for (Transaction tx : batch)
+                metrics.failed(tx.getAction(), System.nanoTime() - start, FailureReason.of(e));
+            throw e;
+        }
+        return submitted.whenComplete((results, ex) -> {
+            admission.release(batch.size(), accounts);
+            long elapsed = System.nanoTime() - start;
+            for (int i = 0; i < batch.size(); i++) {
+                TransactionResult r = results != null ? results.get(i) : null;
+                if (r != null && r.isSuccess())
+                    metrics.succeeded(batch.get(i).getAction(), elapsed);
+                else
+                    metrics.failed(batch.get(i).getAction(), elapsed,
+                            r != null ? r.getReason() : FailureReason.of(ex));
+            }
+        });
+    }
+
+    private UUID trackedAccount(Transaction tx) {
+        UUID id = tx.getAccountId();
+        return id != null && accountRepository.containsKey(id) ? id : null;
+    }
+
+    private static TransactionFailedException rejection() {
+        return new TransactionFailedException(FailureReason.REJECTED, "Too many pending transactions");
+    }
+
+    private void release(Transaction tx, CompletableFuture<Void> outcome, Throwable error) {
+        if (outcome == null)
+            return;
+        idempotency.remove(tx.getId(), outcome);
+        outcome.completeExceptionally(error);
+    }
+
+    private static void settle(CompletableFuture<Void> outcome, Throwable error) {
+        if (error == null)
+            outcome.complete(null);
+        else
+            outcome.completeExceptionally(error);
+    }
+
+    public TransactionIndex getIndex() {
+        if (index == null)
+            throw new IllegalStateException("Transaction index is disabled");
+        return index;
+    }
+
+    public BankMetrics getMetrics() {
+        return metrics;
+    }
+
+    public boolean isIdempotent() {
+        return idempotency != null;
+    }
+
+    boolean isLockFree(Transaction tx) {
+        return tx.getAction() != null && StrategyFactory.getStrategy(tx.getAction()).isLockFree();
+    }
+
+    long enterUpdate() {
+        return journal != null ? cut.enter() : 0L;
+    }
+
+    void exitUpdate(long stamp) {
+        if (journal != null)
+            cut.exit((int) stamp);
+    }
+
+    CompletableFuture<Void> applyTransaction(Transaction tx) {
+        long stamp = enterUpdate();
+        try {
+            Account account = getAccount(tx.getAccountId());
+            if (account == null)
+                throw new TransactionFailedException(FailureReason.ACCOUNT_NOT_FOUND, "Account not found");
+
+            TransactionStrategy strategy = StrategyFactory.getStrategy(tx.getAction());
+            strategy.execute(account, tx, accountRepository);
+            return completeTransaction(tx);
+
+        } catch (Exception e) {
+            System.err.println("Tx Failed: " + e.getMessage());
+            throw new RuntimeException(e);
+        } finally {
+            exitUpdate(stamp);
+        }
+    }
+
+    CompletableFuture<Void> completeTransaction(Transaction tx) {
+        return journal != null ? journal.append(tx) : DONE;
+    }
+
+    void publish(Transaction tx) {
+        observers.publish(tx);
+    }
+
+    public void addObserver(TransactionObserver observer) {
+        observers.subscribe(observer);
+    }
+
+    public void addObserver(TransactionObserver observer, BackpressurePolicy policy) {
+        observers.subscribe(observer, policy);
+    }
+
+    public boolean runAfterQueued(TransactionObserver observer, Runnable action) {
+        return observers.runAfterQueued(observer, action);
+    }
+
+    public boolean removeObserver(TransactionObserver observer) {
+        return observers.unsubscribe(observer);
+    }
+
+    public void shutdown() {
+        if (checkpointScheduler != null)
+            checkpointScheduler.shutdown();
+        if (!admission.drain(TransactionEngine.SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+            System.err.println("Shutdown: " + admission.pending() + " transactions still pending");
+        engine.shutdown();
+        if (flushScheduler != null)
+            flushScheduler.shutdown();
+        flushHotAccounts();
+        observers.close();
+        if (metricsName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(metricsName);
+            } catch (JMException e) {
+                System.err.println("Metrics not unregistered: " + e.getMessage());
+            }
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close journal", e);
+            }
+        }
     }
 
     public Account getAccount(UUID id) {
-        return accountRepository.get(id);
+        return id == null ? null : accountRepository.get(id);
     }
 }
@@ -0,0 +1,41 @@
+package com.bank.service;
+
+import com.bank.model.Transaction;
+import com.bank.model.TransactionResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+class BatchResults {
+    private final List<Transaction> batch;
+    private final TransactionResult[] results;
+    private final List<CompletableFuture<Void>> pending = Collections.synchronizedList(new ArrayList<>());
+
+    BatchResults(List<Transaction> batch) {
+        this.batch = batch;
+        this.results = new TransactionResult[batch.size()];
+    }
+
+    void track(int index, CompletableFuture<Void> outcome) {
+        Transaction tx = batch.get(index);
+        if (outcome.isDone() && !outcome.isCompletedExceptionally()) {
+            results[index] = TransactionResult.success(tx);
+            return;
+        }
+        pending.add(outcome.handle((v, ex) -> {
+            results[index] = ex == null ? TransactionResult.success(tx) : TransactionResult.failure(tx, ex);
+            return null;
+        }));
+    }
+
+    void failed(int index, Throwable error) {
+        results[index] = TransactionResult.failure(batch.get(index), error);
+    }
+
+    CompletableFuture<List<TransactionResult>> whenComplete() {
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> Arrays.asList(results));
+    }
+}
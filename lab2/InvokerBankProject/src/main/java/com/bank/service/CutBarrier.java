@@ -0,0 +1,52 @@
+package com.bank.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+
+// Striped reader counts instead of one shared read lock: an update only touches the counter of its own stripe,
+// and a cut raises the flag, blocks late arrivals on the lock and waits for every stripe to drain.
+class CutBarrier {
+    private static final int STRIPES = Math.min(64, Integer.highestOneBit(
+            Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) << 1);
+    private static final int PAD = 8;
+
+    private final AtomicLongArray active = new AtomicLongArray(STRIPES * PAD);
+    private final StampedLock cutLock = new StampedLock();
+    private volatile boolean cutting;
+
+    int enter() {
+        int stripe = stripeOfCurrentThread();
+        while (true) {
+            active.incrementAndGet(stripe);
+            if (!cutting)
+                return stripe;
+            active.decrementAndGet(stripe);
+            cutLock.unlockRead(cutLock.readLock());
+        }
+    }
+
+    void exit(int stripe) {
+        active.decrementAndGet(stripe);
+    }
+
+    long cut() {
+        long stamp = cutLock.writeLock();
+        cutting = true;
+        for (int i = 0; i < active.length(); i += PAD) {
+            while (active.get(i) != 0)
+                Thread.yield();
+        }
+        return stamp;
+    }
+
+    void release(long stamp) {
+        cutting = false;
+        cutLock.unlockWrite(stamp);
+    }
+
+    private static int stripeOfCurrentThread() {
+        int h = System.identityHashCode(Thread.currentThread());
+        h ^= h >>> 16;
+        return (h & (STRIPES - 1)) * PAD;
+    }
+}
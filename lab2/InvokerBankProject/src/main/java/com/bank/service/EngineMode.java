@@ -0,0 +1,5 @@
+package com.bank.service;
+
+public enum EngineMode {
+    LOCKING, SHARDED
+}
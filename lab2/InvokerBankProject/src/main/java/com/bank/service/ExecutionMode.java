@@ -0,0 +1,5 @@
+package com.bank.service;
+
+public enum ExecutionMode {
+    FIXED_POOL, VIRTUAL_THREADS
+}
@@ -0,0 +1,80 @@
+package com.bank.service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class IdempotencyCache {
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final long ttlNanos;
+
+    IdempotencyCache(int capacity, long ttlNanos) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+        this.ttlNanos = ttlNanos;
+    }
+
+    CompletableFuture<Void> putIfAbsent(UUID id, CompletableFuture<Void> outcome) {
+        long now = System.nanoTime();
+        Entry entry = new Entry(id, outcome, now);
+        while (true) {
+            Entry existing = entries.putIfAbsent(id, entry);
+            if (existing == null)
+                break;
+            if (!existing.isExpired(now, ttlNanos))
+                return existing.outcome;
+            if (entries.replace(id, existing, entry))
+                break;
+        }
+        order.add(entry);
+        size.incrementAndGet();
+        evict(now);
+        return null;
+    }
+
+    void remove(UUID id, CompletableFuture<Void> outcome) {
+        Entry entry = entries.get(id);
+        if (entry != null && entry.outcome == outcome)
+            entries.remove(id, entry);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        while (true) {
+            Entry head = order.peek();
+            if (head == null || (size.get() <= capacity && !head.isExpired(now, ttlNanos)))
+                return;
+            if (order.remove(head)) {
+                size.decrementAndGet();
+                entries.remove(head.id, head);
+            }
+        }
+    }
+
+    private static class Entry {
+        final UUID id;
+        final CompletableFuture<Void> outcome;
+        final long createdNanos;
+
+        Entry(UUID id, CompletableFuture<Void> outcome, long createdNanos) {
+            this.id = id;
+            this.outcome = outcome;
+            this.createdNanos = createdNanos;
+        }
+
+        boolean isExpired(long now, long ttlNanos) {
+            return ttlNanos > 0 && now - createdNanos > ttlNanos;
+        }
+    }
+}
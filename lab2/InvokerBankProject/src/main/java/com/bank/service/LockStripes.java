@@ -0,0 +1,101 @@
+package com.bank.service;
+
+import java.util.BitSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class LockStripes {
+    private final ReentrantLock[] locks;
+    private final int mask;
+    private final AtomicLongArray waitNanos;
+    private final AtomicLongArray waitCount;
+
+    public LockStripes(int stripes) {
+        if (stripes <= 0)
+            throw new IllegalArgumentException("Stripe count must be positive");
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes)
+            size <<= 1;
+        this.locks = new ReentrantLock[size];
+        this.mask = size - 1;
+        this.waitNanos = new AtomicLongArray(size);
+        this.waitCount = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+            locks[i] = new ReentrantLock();
+    }
+
+    public int stripeOf(UUID id) {
+        int h = id.hashCode();
+        h ^= (h >>> 16);
+        return h & mask;
+    }
+
+    public int size() {
+        return locks.length;
+    }
+
+    public long getWaitNanos(int stripe) {
+        return waitNanos.get(stripe);
+    }
+
+    public long getWaitCount(int stripe) {
+        return waitCount.get(stripe);
+    }
+
+    private void acquire(int stripe) {
+        ReentrantLock lock = locks[stripe];
+        if (lock.tryLock())
+            return;
+        long start = System.nanoTime();
+        lock.lock();
+        waitNanos.addAndGet(stripe, System.nanoTime() - start);
+        waitCount.incrementAndGet(stripe);
+    }
+
+    public void lock(UUID accountId, UUID targetId) {
+        int first = stripeOf(accountId);
+        if (targetId == null) {
+            acquire(first);
+            return;
+        }
+        int second = stripeOf(targetId);
+        if (first == second) {
+            acquire(first);
+        } else if (first < second) {
+            acquire(first);
+            acquire(second);
+        } else {
+            acquire(second);
+            acquire(first);
+        }
+    }
+
+    public void unlock(UUID accountId, UUID targetId) {
+        int first = stripeOf(accountId);
+        if (targetId == null) {
+            locks[first].unlock();
+            return;
+        }
+        int second = stripeOf(targetId);
+        if (first == second) {
+            locks[first].unlock();
+        } else if (first < second) {
+            locks[second].unlock();
+            locks[first].unlock();
+        } else {
+            locks[first].unlock();
+            locks[second].unlock();
+        }
+    }
+
+    public void lockAll(BitSet stripes) {
+        for (int i = stripes.nextSetBit(0); i >= 0; i = stripes.nextSetBit(i + 1))
+            acquire(i);
+    }
+
+    public void unlockAll(BitSet stripes) {
+        for (int i = stripes.previousSetBit(locks.length - 1); i >= 0; i = stripes.previousSetBit(i - 1))
+            locks[i].unlock();
+    }
+}
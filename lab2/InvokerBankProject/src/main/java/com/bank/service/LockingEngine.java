@@ -0,0 +1,113 @@
+package com.bank.service;
+
+import com.bank.model.Transaction;
+import com.bank.model.TransactionResult;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+class LockingEngine implements TransactionEngine {
+    private final BankService bank;
+    private final LockStripes accountLocks;
+    private final ExecutorService executor;
+
+    LockingEngine(BankService bank, BankConfig config) {
+        this.bank = bank;
+        this.accountLocks = new LockStripes(config.getLockStripes());
+        this.executor = createExecutor(config);
+    }
+
+    private static ExecutorService createExecutor(BankConfig config) {
+        if (config.getExecutionMode() == ExecutionMode.VIRTUAL_THREADS) {
+            try {
+                // looked up reflectively so the project still builds and runs on Java 17
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("Virtual threads need Java 21+, falling back to a fixed pool");
+            }
+        }
+        return Executors.newFixedThreadPool(config.getWorkerThreads());
+    }
+
+    @Override
+    public CompletableFuture<Void> submit(Transaction tx) {
+        return CompletableFuture.supplyAsync(() -> {
+            CompletableFuture<Void> durable;
+            if (bank.isLockFree(tx) || tx.getAccountId() == null) {
+                durable = bank.applyTransaction(tx);
+            } else {
+                UUID accId = tx.getAccountId();
+                UUID targetId = tx.getTargetAccountId();
+
+                accountLocks.lock(accId, targetId);
+                try {
+                    durable = bank.applyTransaction(tx);
+                } finally {
+                    accountLocks.unlock(accId, targetId);
+                }
+            }
+            bank.publish(tx);
+            return durable;
+        }, executor).thenCompose(Function.identity());
+    }
+
+    @Override
+    public CompletableFuture<List<TransactionResult>> submitBatch(List<Transaction> batch) {
+        return CompletableFuture.supplyAsync(() -> {
+            BitSet stripes = new BitSet(accountLocks.size());
+            for (Transaction tx : batch) {
+                if (tx.getAccountId() != null)
+                    stripes.set(accountLocks.stripeOf(tx.getAccountId()));
+                if (tx.getTargetAccountId() != null)
+                    stripes.set(accountLocks.stripeOf(tx.getTargetAccountId()));
+            }
+
+            BatchResults results = new BatchResults(batch);
+            List<Transaction> applied = new ArrayList<>(batch.size());
+            accountLocks.lockAll(stripes);
+            try {
+                for (int i = 0; i < batch.size(); i++) {
+                    try {
+                        results.track(i, bank.applyTransaction(batch.get(i)));
+                        applied.add(batch.get(i));
+                    } catch (RuntimeException e) {
+                        results.failed(i, e);
+                    }
+                }
+            } finally {
+                accountLocks.unlockAll(stripes);
+            }
+            applied.forEach(bank::publish);
+            return results;
+        }, executor).thenCompose(BatchResults::whenComplete);
+    }
+
+    @Override
+    public int queueDepth() {
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getQueue().size() : 0;
+    }
+
+    @Override
+    public LockStripes lockStripes() {
+        return accountLocks;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
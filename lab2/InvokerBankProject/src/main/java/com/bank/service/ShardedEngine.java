@@ -0,0 +1,329 @@
+package com.bank.service;
+
+import com.bank.model.Account;
+import com.bank.model.ActionType;
+import com.bank.model.BalanceUpdate;
+import com.bank.model.FailureReason;
+import com.bank.model.Transaction;
+import com.bank.model.TransactionFailedException;
+import com.bank.model.TransactionResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+class ShardedEngine implements TransactionEngine {
+    private final BankService bank;
+    private final ThreadPoolExecutor[] shards;
+    private final Set<Transaction> inFlight = ConcurrentHashMap.newKeySet();
+
+    ShardedEngine(BankService bank, BankConfig config) {
+        if (config.getShardCount() <= 0)
+            throw new IllegalArgumentException("Shard count must be positive");
+        this.bank = bank;
+        this.shards = new ThreadPoolExecutor[config.getShardCount()];
+        for (int i = 0; i < shards.length; i++) {
+            String name = "bank-shard-" + i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    r -> new Thread(r, name));
+        }
+    }
+
+    int shardOf(UUID accountId) {
+        if (accountId == null)
+            return 0;
+        int h = accountId.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, shards.length);
+    }
+
+    private boolean isCrossShard(Transaction tx, int source) {
+        return tx.getAction() == ActionType.TRANSFER && tx.getTargetAccountId() != null
+                && shardOf(tx.getTargetAccountId()) != source;
+    }
+
+    @Override
+    public CompletableFuture<Void> submit(Transaction tx) {
+        if (tx.getAccountId() == null)
+            return CompletableFuture.failedFuture(new RuntimeException(
+                    new TransactionFailedException(FailureReason.ACCOUNT_NOT_FOUND, "Account not found")));
+        int source = shardOf(tx.getAccountId());
+        if (!isCrossShard(tx, source))
+            return CompletableFuture.supplyAsync(() -> apply(tx), shards[source])
+                    .thenCompose(Function.identity());
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        shards[source].execute(() -> debitPhase(tx, result));
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<List<TransactionResult>> submitBatch(List<Transaction> batch) {
+        BatchPlan plan = new BatchPlan(batch);
+        BatchResults results = new BatchResults(batch);
+        List<CompletableFuture<Void>> groups = new ArrayList<>();
+        for (int shard = 0; shard < shards.length; shard++) {
+            if (plan.offsets[shard] == plan.offsets[shard + 1])
+                continue;
+            Group group = new Group(plan, shard, results);
+            groups.add(group.done);
+            shards[shard].execute(group::run);
+        }
+
+        return CompletableFuture.allOf(groups.toArray(new CompletableFuture<?>[0]))
+                .thenCompose(v -> results.whenComplete());
+    }
+
+    private CompletableFuture<Void> apply(Transaction tx) {
+        CompletableFuture<Void> durable = bank.applyTransaction(tx);
+        bank.publish(tx);
+        return durable;
+    }
+
+    private void debitPhase(Transaction tx, CompletableFuture<Void> result) {
+        if (debit(tx, result, null))
+            shards[shardOf(tx.getTargetAccountId())].execute(() -> creditPhase(tx, result, null));
+    }
+
+    private boolean debit(Transaction tx, CompletableFuture<Void> result, CompletableFuture<Void> settled) {
+        Account from = bank.getAccount(tx.getAccountId());
+        Account to = bank.getAccount(tx.getTargetAccountId());
+        long stamp = bank.enterUpdate();
+        try {
+            if (from == null)
+                throw new TransactionFailedException(FailureReason.ACCOUNT_NOT_FOUND, "Account not found");
+            if (to == null)
+                throw new TransactionFailedException(FailureReason.ACCOUNT_NOT_FOUND, "Target account not found");
+            BalanceUpdate debited = from.withdraw(tx.getAmountMinor());
+            if (debited == BalanceUpdate.FROZEN)
+                throw new TransactionFailedException(FailureReason.FROZEN, "Source Account is frozen");
+            if (debited == BalanceUpdate.INSUFFICIENT_FUNDS)
+                throw new TransactionFailedException(FailureReason.INSUFFICIENT_FUNDS, "Insufficient funds");
+            if (debited != BalanceUpdate.APPLIED)
+                throw new TransactionFailedException(FailureReason.OVERFLOW, "Balance overflow");
+            inFlight.add(tx);
+            return true;
+        } catch (Exception e) {
+            settle(settled);
+            fail(result, e);
+            return false;
+        } finally {
+            bank.exitUpdate(stamp);
+        }
+    }
+
+    private void creditPhase(Transaction tx, CompletableFuture<Void> result, CompletableFuture<Void> settled) {
+        Account from = bank.getAccount(tx.getAccountId());
+        Account to = bank.getAccount(tx.getTargetAccountId());
+        CompletableFuture<Void> durable;
+        boolean refunding = false;
+        long stamp = bank.enterUpdate();
+        try {
+            BalanceUpdate credited = to.deposit(tx.getAmountMinor());
+            if (credited != BalanceUpdate.APPLIED) {
+                refunding = true;
+                TransactionFailedException reason = credited == BalanceUpdate.FROZEN
+                        ? new TransactionFailedException(FailureReason.FROZEN, "Target Account is frozen")
+                        : new TransactionFailedException(FailureReason.OVERFLOW, "Balance overflow");
+                shards[shardOf(from.getId())].execute(() -> refund(tx, from, result, settled, reason));
+                return;
+            }
+            durable = bank.completeTransaction(tx);
+            inFlight.remove(tx);
+        } finally {
+            bank.exitUpdate(stamp);
+            if (!refunding)
+                settle(settled);
+        }
+        bank.publish(tx);
+        durable.whenComplete((v, ex) -> {
+            if (ex == null)
+                result.complete(null);
+            else
+                result.completeExceptionally(ex);
+        });
+    }
+
+    private void refund(Transaction tx, Account from, CompletableFuture<Void> result, CompletableFuture<Void> settled,
+            TransactionFailedException reason) {
+        long stamp = bank.enterUpdate();
+        try {
+            from.forceCredit(tx.getAmountMinor());
+            inFlight.remove(tx);
+        } finally {
+            bank.exitUpdate(stamp);
+        }
+        settle(settled);
+        fail(result, reason);
+    }
+
+    private static void settle(CompletableFuture<Void> settled) {
+        if (settled != null)
+            settled.complete(null);
+    }
+
+    @Override
+    public int queueDepth() {
+        int depth = 0;
+        for (ThreadPoolExecutor shard : shards)
+            depth += shard.getQueue().size();
+        return depth;
+    }
+
+    @Override
+    public Collection<Transaction> inFlightTransfers() {
+        return inFlight;
+    }
+
+    private void fail(CompletableFuture<Void> result, Exception e) {
+        System.err.println("Tx Failed: " + e.getMessage());
+        result.completeExceptionally(new RuntimeException(e));
+    }
+
+    @Override
+    public void shutdown() {
+        for (ExecutorService shard : shards)
+            shard.shutdown();
+        try {
+            for (ExecutorService shard : shards)
+                shard.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class CrossTransfer {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        final CompletableFuture<Boolean> debited = new CompletableFuture<>();
+        final CompletableFuture<Void> settled = new CompletableFuture<>();
+    }
+
+    private final class BatchPlan {
+        final List<Transaction> batch;
+        final int[] offsets = new int[shards.length + 1];
+        final int[] entries;
+        final CompletableFuture<?>[] waits;
+        final Map<Integer, CrossTransfer> transfers = new HashMap<>();
+
+        BatchPlan(List<Transaction> batch) {
+            this.batch = batch;
+            int size = batch.size();
+            int[] source = new int[size];
+            int[] target = new int[size];
+            for (int i = 0; i < size; i++) {
+                Transaction tx = batch.get(i);
+                source[i] = shardOf(tx.getAccountId());
+                target[i] = isCrossShard(tx, source[i]) ? shardOf(tx.getTargetAccountId()) : -1;
+                offsets[source[i] + 1]++;
+                if (target[i] >= 0)
+                    offsets[target[i] + 1]++;
+            }
+            for (int shard = 0; shard < shards.length; shard++)
+                offsets[shard + 1] += offsets[shard];
+            entries = new int[offsets[shards.length]];
+            waits = new CompletableFuture<?>[entries.length];
+            int[] fill = Arrays.copyOf(offsets, shards.length);
+            Map<UUID, CrossTransfer> unsettled = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                Transaction tx = batch.get(i);
+                CompletableFuture<?> wait = settledFrom(unsettled, tx.getAccountId());
+                if (tx.getTargetAccountId() != null)
+                    wait = both(wait, settledFrom(unsettled, tx.getTargetAccountId()));
+                waits[fill[source[i]]] = wait;
+                entries[fill[source[i]]++] = i << 1;
+                if (target[i] < 0)
+                    continue;
+                CrossTransfer transfer = new CrossTransfer();
+                transfers.put(i, transfer);
+                waits[fill[target[i]]] = both(transfer.debited, settledFrom(unsettled, tx.getTargetAccountId()));
+                entries[fill[target[i]]++] = (i << 1) | 1;
+                unsettled.put(tx.getAccountId(), transfer);
+            }
+        }
+
+        private CompletableFuture<?> settledFrom(Map<UUID, CrossTransfer> unsettled, UUID accountId) {
+            CrossTransfer transfer = accountId == null ? null : unsettled.get(accountId);
+            return transfer == null ? null : transfer.settled;
+        }
+
+        private CompletableFuture<?> both(CompletableFuture<?> first, CompletableFuture<?> second) {
+            if (first == null || first == second)
+                return second;
+            return second == null ? first : CompletableFuture.allOf(first, second);
+        }
+    }
+
+    private final class Group {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final BatchPlan plan;
+        private final int shard;
+        private final BatchResults results;
+        private int next;
+
+        Group(BatchPlan plan, int shard, BatchResults results) {
+            this.plan = plan;
+            this.shard = shard;
+            this.results = results;
+            this.next = plan.offsets[shard];
+        }
+
+        void run() {
+            int end = plan.offsets[shard + 1];
+            while (next < end) {
+                CompletableFuture<?> wait = plan.waits[next];
+                if (wait != null && !wait.isDone()) {
+                    wait.whenComplete((v, ex) -> resume());
+                    return;
+                }
+                int entry = plan.entries[next++];
+                int i = entry >>> 1;
+                Transaction tx = plan.batch.get(i);
+                CrossTransfer transfer = plan.transfers.get(i);
+                if ((entry & 1) != 0) {
+                    if (transfer.debited.join())
+                        creditPhase(tx, transfer.result, transfer.settled);
+                } else if (transfer != null) {
+                    results.track(i, transfer.result);
+                    transfer.debited.complete(debit(tx, transfer.result, transfer.settled));
+                } else {
+                    try {
+                        results.track(i, apply(tx));
+                    } catch (RuntimeException e) {
+                        results.failed(i, e);
+                    }
+                }
+            }
+            done.complete(null);
+        }
+
+        private void resume() {
+            try {
+                shards[shard].execute(this::run);
+            } catch (RejectedExecutionException e) {
+                int end = plan.offsets[shard + 1];
+                for (; next < end; next++) {
+                    int i = plan.entries[next] >>> 1;
+                    if ((plan.entries[next] & 1) == 0) {
+                        results.failed(i, e);
+                    } else {
+                        plan.transfers.get(i).result.completeExceptionally(e);
+                        plan.transfers.get(i).settled.complete(null);
+                    }
+                }
+                done.complete(null);
+            }
+        }
+    }
+}
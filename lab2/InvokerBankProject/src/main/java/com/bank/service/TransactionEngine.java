@@ -0,0 +1,29 @@
+package com.bank.service;
+
+import com.bank.model.Transaction;
+import com.bank.model.TransactionResult;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+interface TransactionEngine {
+    long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    CompletableFuture<Void> submit(Transaction tx);
+
+    CompletableFuture<List<TransactionResult>> submitBatch(List<Transaction> batch);
+
+    default int queueDepth() {
+        return 0;
+    }
+
+    default LockStripes lockStripes() {
+        return null;
+    }
+
+    default Collection<Transaction> inFlightTransfers() {
+        return List.of();
+    }
+
+    void shutdown();
+}
@@ -0,0 +1,169 @@
+package com.bank.cluster;
+
+import com.bank.model.ActionType;
+import com.bank.model.FailureReason;
+import com.bank.model.Transaction;
+import com.bank.model.TransactionFailedException;
+import com.bank.service.BankConfig;
+import com.bank.service.BankService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PartitionedBankTest {
+    private final BankService[] services = new BankService[2];
+    private final Flaky[] partitions = new Flaky[2];
+    private PartitionedBank cluster;
+    private UUID source;
+    private UUID target;
+
+    @AfterEach
+    void close() {
+        if (cluster != null)
+            cluster.close();
+    }
+
+    private static BankConfig config() {
+        return new BankConfig().withConsoleAudit(false).withJmx(false);
+    }
+
+    private void start() throws Exception {
+        List<Partition> list = new ArrayList<>();
+        for (int i = 0; i < services.length; i++) {
+            services[i] = BankService.create(config());
+            partitions[i] = new Flaky(new LocalPartition(services[i]));
+            list.add(partitions[i]);
+        }
+        cluster = new PartitionedBank(list, 64);
+        source = accountOn(0);
+        target = accountOn(1);
+        cluster.openAccount(source, 1_000).get(5, TimeUnit.SECONDS);
+        cluster.openAccount(target, 0).get(5, TimeUnit.SECONDS);
+    }
+
+    private UUID accountOn(int partition) {
+        UUID id;
+        do {
+            id = UUID.randomUUID();
+        } while (cluster.partitionOf(id) != partition);
+        return id;
+    }
+
+    private CompletableFuture<Void> transfer(long amountMinor) {
+        return cluster.processTransaction(new Transaction(ActionType.TRANSFER, amountMinor, source, target));
+    }
+
+    private long balance(UUID account) throws Exception {
+        return cluster.balance(account).get(5, TimeUnit.SECONDS);
+    }
+
+    private static FailureReason reasonOf(CompletableFuture<Void> future) {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        return FailureReason.of(error);
+    }
+
+    @Test
+    void frozenTargetIsCompensated() throws Exception {
+        start();
+        services[1].getAccount(target).setFrozen(true);
+
+        assertEquals(FailureReason.FROZEN, reasonOf(transfer(300)));
+        assertEquals(1_000, balance(source));
+        assertEquals(0, balance(target));
+        assertEquals(1, cluster.getCompensations());
+        assertEquals(0, cluster.getFailedCompensations());
+    }
+
+    @Test
+    void creditWithUnknownOutcomeIsAppliedOnce() throws Exception {
+        start();
+        partitions[1].fail(ActionType.DEPOSIT, 3, true);
+
+        transfer(300).get(10, TimeUnit.SECONDS);
+        assertEquals(700, balance(source));
+        assertEquals(300, balance(target));
+        assertEquals(0, cluster.getUnresolvedTransfers());
+    }
+
+    @Test
+    void creditThatNeverSucceedsLeavesTheTransferUnresolved() throws Exception {
+        start();
+        partitions[1].fail(ActionType.DEPOSIT, Integer.MAX_VALUE, false);
+
+        assertEquals(FailureReason.OTHER, reasonOf(transfer(300)));
+        assertEquals(700, balance(source));
+        assertEquals(0, balance(target));
+        assertEquals(1, cluster.getUnresolvedTransfers());
+        assertEquals(0, cluster.getCompensations());
+    }
+
+    @Test
+    void compensationRetriesUnknownOutcomes() throws Exception {
+        start();
+        services[1].getAccount(target).setFrozen(true);
+        partitions[0].fail(ActionType.REVERSAL, 3, true);
+
+        assertEquals(FailureReason.FROZEN, reasonOf(transfer(300)));
+        assertEquals(1_000, balance(source));
+        assertEquals(1, cluster.getCompensations());
+        assertEquals(0, cluster.getFailedCompensations());
+    }
+
+    @Test
+    void localRejectsPartitionsThatDoNotDeduplicate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PartitionedBank.local(2, i -> config().withIdempotency(0, 0)));
+    }
+
+    // fails the next N transactions of one action with OTHER, either before or after applying them
+    private static class Flaky implements Partition {
+        private final Partition partition;
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile ActionType action;
+        private volatile boolean applied;
+
+        Flaky(Partition partition) {
+            this.partition = partition;
+        }
+
+        void fail(ActionType action, int times, boolean applied) {
+            this.action = action;
+            this.applied = applied;
+            failures.set(times);
+        }
+
+        @Override
+        public CompletableFuture<Void> submit(Transaction tx) {
+            if (tx.getAction() != action || failures.getAndUpdate(n -> Math.max(0, n - 1)) == 0)
+                return partition.submit(tx);
+            CompletableFuture<Void> lost = CompletableFuture.failedFuture(
+                    new TransactionFailedException(FailureReason.OTHER, "Connection lost"));
+            return applied ? partition.submit(tx).handle((v, ex) -> null).thenCompose(v -> lost) : lost;
+        }
+
+        @Override
+        public CompletableFuture<Void> openAccount(UUID accountId, long balanceMinor) {
+            return partition.openAccount(accountId, balanceMinor);
+        }
+
+        @Override
+        public CompletableFuture<Long> balance(UUID accountId) {
+            return partition.balance(accountId);
+        }
+
+        @Override
+        public void close() {
+            partition.close();
+        }
+    }
+}
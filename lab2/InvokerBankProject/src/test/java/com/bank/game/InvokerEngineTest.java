@@ -0,0 +1,74 @@
+package com.bank.game;
+
+import com.bank.game.InvokerEngine.Orb;
+import com.bank.puzzle.Combo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InvokerEngineTest {
+    private static String sorted(String letters) {
+        char[] chars = letters.toCharArray();
+        Arrays.sort(chars);
+        return new String(chars);
+    }
+
+    private static Combo expected(Orb... orbs) {
+        StringBuilder letters = new StringBuilder();
+        for (Orb orb : orbs)
+            letters.append(orb.name().charAt(0));
+        for (Combo combo : Combo.values()) {
+            if (sorted(combo.name()).equals(sorted(letters.toString())))
+                return combo;
+        }
+        return null;
+    }
+
+    @Test
+    void everyOrbSequenceInvokesTheComboWithTheSameOrbs() {
+        Orb[] orbs = Orb.values();
+        for (Orb a : orbs) {
+            for (Orb b : orbs) {
+                for (Orb c : orbs) {
+                    InvokerEngine engine = new InvokerEngine();
+                    engine.addOrb(a);
+                    engine.addOrb(b);
+                    engine.addOrb(c);
+                    Combo combo = expected(a, b, c);
+                    assertNotNull(combo, a + " " + b + " " + c);
+                    assertEquals(combo, engine.currentCombo(), a + " " + b + " " + c);
+                    assertEquals(combo.getSpell(), engine.invoke());
+                }
+            }
+        }
+    }
+
+    @Test
+    void fewerThanThreeOrbsInvokeNothing() {
+        InvokerEngine engine = new InvokerEngine();
+        assertEquals("NOT_ENOUGH", engine.invoke());
+        engine.addOrb(Orb.EXORT);
+        engine.addOrb(Orb.EXORT);
+        assertNull(engine.currentCombo());
+        assertEquals("NOT_ENOUGH", engine.invoke());
+        assertEquals(List.of(Orb.EXORT, Orb.EXORT), engine.getCurrentOrbs());
+    }
+
+    @Test
+    void newOrbsPushOutTheOldest() {
+        InvokerEngine engine = new InvokerEngine();
+        Orb[] sequence = {Orb.QUAS, Orb.QUAS, Orb.QUAS, Orb.WEX, Orb.EXORT, Orb.WEX, Orb.WEX, Orb.QUAS};
+        for (int i = 0; i < sequence.length; i++) {
+            engine.addOrb(sequence[i]);
+            if (i < 2)
+                continue;
+            assertEquals(List.of(sequence[i - 2], sequence[i - 1], sequence[i]), engine.getCurrentOrbs());
+            assertEquals(expected(sequence[i - 2], sequence[i - 1], sequence[i]), engine.currentCombo());
+        }
+    }
+}
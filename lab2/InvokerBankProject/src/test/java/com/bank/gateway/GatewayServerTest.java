@@ -0,0 +1,155 @@
+package com.bank.gateway;
+
+import com.bank.model.ActionType;
+import com.bank.model.FailureReason;
+import com.bank.model.Transaction;
+import com.bank.model.TransactionRecord;
+import com.bank.service.BankConfig;
+import com.bank.service.BankService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GatewayServerTest {
+    private final BankService bank = BankService.create(new BankConfig().withConsoleAudit(false).withJmx(false));
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void close() throws Exception {
+        for (AutoCloseable resource : resources)
+            resource.close();
+        bank.shutdown();
+    }
+
+    private GatewayServer start(int pipeline, boolean funded) throws IOException {
+        GatewayServer server = GatewayServer.start(bank, new InetSocketAddress("127.0.0.1", 0), pipeline, false, funded);
+        resources.add(server);
+        return server;
+    }
+
+    private GatewayClient connect(GatewayServer server) throws IOException {
+        GatewayClient client = GatewayClient.connect(server.getAddress());
+        resources.add(0, client);
+        return client;
+    }
+
+    @Test
+    void pipelinedRequestsBeyondTheWindowAreAllAnswered() throws Exception {
+        GatewayClient client = connect(start(4, false));
+        UUID account = UUID.randomUUID();
+        client.openAccount(account, 0).get(5, TimeUnit.SECONDS);
+
+        List<Transaction> deposits = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++)
+            deposits.add(new Transaction(ActionType.DEPOSIT, 1, account, null));
+        CompletableFuture.allOf(client.submitBatch(deposits).toArray(new CompletableFuture<?>[0]))
+                .get(30, TimeUnit.SECONDS);
+
+        assertEquals(2_000, client.balance(account).get(5, TimeUnit.SECONDS));
+        assertEquals(0, client.pendingCount());
+    }
+
+    @Test
+    void fundedAccountsNeedTheFlag() throws Exception {
+        GatewayClient closed = connect(start(16, false));
+        assertEquals(FailureReason.REJECTED, reasonOf(closed.openAccount(UUID.randomUUID(), 100)));
+        assertEquals(FailureReason.REJECTED, reasonOf(closed.openAccount(UUID.randomUUID(), -1)));
+
+        GatewayClient open = connect(start(16, true));
+        UUID account = UUID.randomUUID();
+        open.openAccount(account, 100).get(5, TimeUnit.SECONDS);
+        assertEquals(100, open.balance(account).get(5, TimeUnit.SECONDS));
+        assertEquals(FailureReason.REJECTED, reasonOf(open.openAccount(account, 0)));
+    }
+
+    @Test
+    void reversalsNeedAnIdempotentBank() {
+        BankService plain = BankService.create(new BankConfig().withConsoleAudit(false).withJmx(false)
+                .withIdempotency(0, 0));
+        try {
+            assertThrows(IllegalArgumentException.class,
+                    () -> GatewayServer.start(plain, new InetSocketAddress("127.0.0.1", 0), 16, true, false));
+        } finally {
+            plain.shutdown();
+        }
+    }
+
+    @Test
+    void openingAnAccountDoesNotStallTheEventLoop() throws Exception {
+        GatewayClient client = connect(start(16, false));
+        UUID existing = UUID.randomUUID();
+        client.openAccount(existing, 0).get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Void> opening;
+        synchronized (bank) {
+            opening = client.openAccount(UUID.randomUUID(), 0);
+            assertEquals(0, client.balance(existing).get(5, TimeUnit.SECONDS));
+            assertFalse(opening.isDone());
+        }
+        opening.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void malformedFramesAreRejectedAndUnknownOpsCloseTheConnection() throws Exception {
+        GatewayServer server = start(16, false);
+        UUID account = UUID.randomUUID();
+        connect(server).openAccount(account, 0).get(5, TimeUnit.SECONDS);
+
+        try (SocketChannel channel = SocketChannel.open(server.getAddress())) {
+            ByteBuffer request = ByteBuffer.allocate(3 * GatewayProtocol.requestSize(GatewayProtocol.OP_SUBMIT));
+            submitFrame(request, 1, new Transaction(ActionType.DEPOSIT, 5, account, null));
+            request.put(request.position() - TransactionRecord.SIZE + 24, (byte) 99);
+            submitFrame(request, 2, new Transaction(ActionType.REVERSAL, 5, account, null));
+            submitFrame(request, 3, new Transaction(ActionType.DEPOSIT, -5, account, null));
+            write(channel, request);
+
+            ByteBuffer responses = read(channel, 3 * GatewayProtocol.RESPONSE_SIZE);
+            for (int i = 0; i < 3; i++) {
+                long correlation = responses.getLong();
+                assertEquals(FailureReason.REJECTED, GatewayProtocol.reason(responses.get()), "request " + correlation);
+                responses.getLong();
+            }
+
+            write(channel, ByteBuffer.allocate(GatewayProtocol.HEADER_SIZE).put((byte) 42).putLong(4));
+            assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+        }
+        assertEquals(0, bank.getAccount(account).getBalanceMinor());
+    }
+
+    private static void submitFrame(ByteBuffer buf, long correlation, Transaction tx) {
+        buf.put(GatewayProtocol.OP_SUBMIT).putLong(correlation);
+        TransactionRecord.write(buf, tx);
+    }
+
+    private static void write(SocketChannel channel, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining())
+            channel.write(buf);
+    }
+
+    private static ByteBuffer read(SocketChannel channel, int size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        while (buf.hasRemaining() && channel.read(buf) >= 0) {
+        }
+        return buf.flip();
+    }
+
+    private static FailureReason reasonOf(CompletableFuture<?> future) {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return FailureReason.of(error);
+    }
+}
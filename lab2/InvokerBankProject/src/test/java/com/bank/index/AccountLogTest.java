@@ -0,0 +1,78 @@
+package com.bank.index;
+
+import com.bank.model.ActionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountLogTest {
+    @Test
+    void segmentsDoubleAndOffsetsRestartAtEachBoundary() {
+        assertEquals(0, AccountLog.segmentOf(0));
+        assertEquals(0, AccountLog.segmentOf(7));
+        assertEquals(7, AccountLog.offsetOf(7));
+        assertEquals(1, AccountLog.segmentOf(8));
+        assertEquals(0, AccountLog.offsetOf(8));
+        assertEquals(15, AccountLog.offsetOf(23));
+        assertEquals(2, AccountLog.segmentOf(24));
+        assertEquals(0, AccountLog.offsetOf(24));
+
+        int segment = 0;
+        int offset = 0;
+        for (int index = 1; index < 1 << 22; index++) {
+            int s = AccountLog.segmentOf(index);
+            int o = AccountLog.offsetOf(index);
+            if (s == segment) {
+                assertEquals(offset + 1, o, "index " + index);
+            } else {
+                assertEquals(segment + 1, s, "index " + index);
+                assertEquals(8 << segment, offset + 1, "segment " + segment + " capacity");
+                assertEquals(0, o, "index " + index);
+            }
+            segment = s;
+            offset = o;
+        }
+    }
+
+    @Test
+    void rangeAndLatestSpanSegments() {
+        AccountLog log = new AccountLog();
+        UUID peer = UUID.randomUUID();
+        for (int i = 0; i < 1_000; i++)
+            log.append(1_000L * i, ActionType.TRANSFER, i, UUID.randomUUID(), i % 2 == 0 ? peer : null);
+
+        assertEquals(1_000, log.size());
+        List<StatementEntry> range = log.range(5_000, 60_000);
+        assertEquals(55, range.size());
+        assertEquals(5, range.get(0).getAmountMinor());
+        assertEquals(59, range.get(54).getAmountMinor());
+        assertEquals(55, log.count(5_000, 60_000));
+        assertEquals(0, log.count(2_000_000, 3_000_000));
+
+        List<StatementEntry> latest = log.latest(30);
+        assertEquals(30, latest.size());
+        assertEquals(999, latest.get(0).getAmountMinor());
+        assertEquals(970, latest.get(29).getAmountMinor());
+        assertNull(latest.get(0).getCounterpartyId());
+        assertEquals(peer, latest.get(1).getCounterpartyId());
+        assertEquals(1_000, log.latest(5_000).size());
+    }
+
+    @Test
+    void outOfOrderTimestampsAreClampedToKeepTheLogSorted() {
+        AccountLog log = new AccountLog();
+        log.append(100, ActionType.DEPOSIT, 1, UUID.randomUUID(), null);
+        log.append(50, ActionType.DEPOSIT, 2, UUID.randomUUID(), null);
+        log.append(200, ActionType.DEPOSIT, 3, UUID.randomUUID(), null);
+
+        List<StatementEntry> all = log.range(Long.MIN_VALUE, Long.MAX_VALUE);
+        for (int i = 1; i < all.size(); i++)
+            assertTrue(all.get(i - 1).getEpochNanos() <= all.get(i).getEpochNanos());
+        assertEquals(2, log.count(100, 101));
+    }
+}
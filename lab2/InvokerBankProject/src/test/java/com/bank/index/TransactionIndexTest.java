@@ -0,0 +1,76 @@
+package com.bank.index;
+
+import com.bank.model.Account;
+import com.bank.model.ActionType;
+import com.bank.model.Transaction;
+import com.bank.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionIndexTest {
+    private final TransactionIndex index = new TransactionIndex();
+
+    @Test
+    void accountsAreIndexedByUser() {
+        User user = new User("owner");
+        Account first = new Account("first");
+        Account second = new Account("second");
+        user.addAccount(first);
+        user.addAccount(second);
+        index.registerUser(user);
+
+        assertEquals(Set.of(first.getId(), second.getId()), index.accountsOf(user.getId()));
+        assertTrue(index.accountsOf(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void transfersAppearOnBothSidesWithSignedAmounts() {
+        UUID from = UUID.randomUUID();
+        UUID to = UUID.randomUUID();
+        Transaction transfer = new Transaction(ActionType.TRANSFER, 40, from, to);
+        index.onTransactionCompleted(transfer);
+
+        StatementEntry debit = index.latest(from, 1).get(0);
+        StatementEntry credit = index.latest(to, 1).get(0);
+        assertEquals(-40, debit.getAmountMinor());
+        assertEquals(to, debit.getCounterpartyId());
+        assertEquals(40, credit.getAmountMinor());
+        assertEquals(from, credit.getCounterpartyId());
+        assertEquals(transfer.getId(), credit.getTransactionId());
+    }
+
+    @Test
+    void historyReturnsTheHalfOpenTimeRange() {
+        UUID account = UUID.randomUUID();
+        List<Transaction> txs = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Transaction tx = new Transaction(i % 3 == 0 ? ActionType.WITHDRAW : ActionType.DEPOSIT, i + 1, account, null);
+            txs.add(tx);
+            index.onTransactionCompleted(tx);
+        }
+
+        long from = txs.get(50).getEpochNanos();
+        long to = txs.get(120).getEpochNanos();
+        List<StatementEntry> history = index.history(account, from, to);
+        long expected = txs.stream().filter(tx -> tx.getEpochNanos() >= from && tx.getEpochNanos() < to).count();
+        assertEquals(expected, history.size());
+        assertEquals(expected, index.count(account, from, to));
+        for (StatementEntry entry : history)
+            assertTrue(entry.getEpochNanos() >= from && entry.getEpochNanos() < to);
+
+        List<StatementEntry> latest = index.latest(account, 3);
+        assertEquals(txs.get(199).getId(), latest.get(0).getTransactionId());
+        assertEquals(txs.get(197).getId(), latest.get(2).getTransactionId());
+        assertEquals(-199, index.latest(account, 2).get(1).getAmountMinor());
+        assertEquals(200, index.size(account));
+        assertTrue(index.latest(account, 0).isEmpty());
+        assertTrue(index.history(UUID.randomUUID(), from, to).isEmpty());
+    }
+}
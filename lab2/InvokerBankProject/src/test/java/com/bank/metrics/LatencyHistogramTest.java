@@ -0,0 +1,46 @@
+package com.bank.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    @Test
+    void percentilesStayWithinOnePercentOfTheExactValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 1_000_000; v++)
+            histogram.record(v * 1_000);
+
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            long exact = (long) Math.ceil(p / 100 * 1_000_000) * 1_000;
+            long estimate = histogram.getValueAtPercentile(p);
+            assertTrue(Math.abs(estimate - exact) <= exact / 100, p + "%: " + estimate + " vs " + exact);
+        }
+        assertEquals(1_000_000_000, histogram.getValueAtPercentile(100));
+        assertEquals(1_000_000, histogram.getCount());
+        assertEquals(500_000_500, histogram.getMean(), 1e-6);
+    }
+
+    @Test
+    void smallValuesAreExactAndBucketsRoundTrip() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 0; v < 100; v++)
+            histogram.record(v);
+        assertEquals(49, histogram.getValueAtPercentile(50));
+
+        for (long v = 1; v < 1L << 40; v = v * 3 + 1) {
+            long bucket = LatencyHistogram.valueOf(LatencyHistogram.indexOf(v));
+            assertTrue(Math.abs(bucket - v) <= Math.max(1, v / 100), v + " -> " + bucket);
+        }
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals((1L << 42) - 1, histogram.getMax());
+    }
+}
@@ -0,0 +1,101 @@
+package com.bank.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AccountTest {
+    private static final long MAX_BALANCE = Long.MAX_VALUE >> 1;
+
+    @Test
+    void hotDepositsNearTheLimitAreRejectedInsteadOfOverflowingLater() {
+        Account account = new Account("hot");
+        account.enableHotCredits();
+        account.setBalanceMinor(MAX_BALANCE - 10);
+
+        assertEquals(BalanceUpdate.APPLIED, account.deposit(7));
+        assertEquals(BalanceUpdate.OVERFLOW, account.deposit(7));
+        assertEquals(MAX_BALANCE - 3, account.getBalanceMinor());
+    }
+
+    @Test
+    void frozenHotAccountRejectsDepositsUntilUnfrozen() {
+        Account account = new Account("hot");
+        account.enableHotCredits();
+        assertEquals(BalanceUpdate.APPLIED, account.deposit(5));
+
+        account.setFrozen(true);
+        assertEquals(BalanceUpdate.FROZEN, account.deposit(5));
+        assertEquals(5, account.getBalanceMinor());
+
+        account.setFrozen(false);
+        assertEquals(BalanceUpdate.APPLIED, account.deposit(5));
+        assertEquals(10, account.getBalanceMinor());
+    }
+
+    @Test
+    void namesThatDoNotFitAJournalRecordAreRejected() {
+        assertEquals(Account.MAX_NAME_BYTES, new Account("a".repeat(Account.MAX_NAME_BYTES)).getName().length());
+        assertThrows(IllegalArgumentException.class, () -> new Account("ж".repeat(Account.MAX_NAME_BYTES / 2 + 1)));
+    }
+
+    @Test
+    void concurrentHotDepositsAreNeitherLostNorAppliedWhileFrozen() throws Exception {
+        Account account = new Account("hot");
+        account.enableHotCredits();
+        AtomicLong deposited = new AtomicLong();
+        AtomicLong appliedWhileFrozen = new AtomicLong();
+        // odd while the account is frozen; a deposit that starts and ends in the same odd phase must be rejected
+        AtomicLong phase = new AtomicLong();
+        AtomicBoolean stop = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(8);
+        List<Thread> depositors = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread depositor = new Thread(() -> {
+                started.countDown();
+                while (!stop.get()) {
+                    long before = phase.get();
+                    BalanceUpdate update = account.deposit(3);
+                    if (update == BalanceUpdate.APPLIED) {
+                        deposited.addAndGet(3);
+                        if ((before & 1) != 0 && phase.get() == before)
+                            appliedWhileFrozen.incrementAndGet();
+                    }
+                }
+            });
+            depositor.start();
+            depositors.add(depositor);
+        }
+
+        started.await();
+        long withdrawn = 0;
+        for (int cycle = 0; cycle < 20; cycle++) {
+            for (int i = 0; i < 5_000; i++) {
+                if (account.withdraw(2) == BalanceUpdate.APPLIED)
+                    withdrawn += 2;
+            }
+            account.setFrozen(true);
+            phase.incrementAndGet();
+            long atFreeze = account.getBalanceMinor();
+            Thread.sleep(2);
+            assertEquals(BalanceUpdate.FROZEN, account.withdraw(1));
+            assertEquals(atFreeze, account.getBalanceMinor(), "cycle " + cycle);
+            phase.incrementAndGet();
+            account.setFrozen(false);
+        }
+        stop.set(true);
+        for (Thread depositor : depositors)
+            depositor.join();
+
+        assertEquals(0, appliedWhileFrozen.get());
+        account.flushCredits();
+        assertEquals(deposited.get() - withdrawn, account.getBalanceMinor());
+    }
+}
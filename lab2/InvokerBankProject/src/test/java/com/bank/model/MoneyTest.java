@@ -0,0 +1,30 @@
+package com.bank.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+    @Test
+    void convertsAmountsWithUpToTwoDecimals() {
+        assertEquals(1234, Money.toMinor(new BigDecimal("12.34")));
+        assertEquals(500, Money.toMinor(new BigDecimal("5.000")));
+        assertEquals(new BigDecimal("12.34"), Money.fromMinor(1234));
+    }
+
+    @Test
+    void rejectsFractionsOfAMinorUnitInsteadOfRounding() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> new Transaction(ActionType.DEPOSIT, new BigDecimal("0.005"), UUID.randomUUID(), null));
+        assertEquals("Amount must have at most 2 decimal places and fit in minor units: 0.005", error.getMessage());
+    }
+
+    @Test
+    void rejectsAmountsOutsideTheMinorRange() {
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinor(new BigDecimal("1e30")));
+    }
+}
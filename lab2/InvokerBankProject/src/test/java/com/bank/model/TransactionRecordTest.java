@@ -0,0 +1,80 @@
+package com.bank.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionRecordTest {
+    @Test
+    void writeAndReadRoundTrip() {
+        Transaction transfer = new Transaction(ActionType.TRANSFER, 12_345, UUID.randomUUID(), UUID.randomUUID());
+        Transaction deposit = new Transaction(ActionType.DEPOSIT, 1, UUID.randomUUID(), null);
+        ByteBuffer buf = ByteBuffer.allocate(2 * TransactionRecord.SIZE);
+        TransactionRecord.write(buf, transfer);
+        TransactionRecord.write(buf, deposit);
+        assertEquals(2 * TransactionRecord.SIZE, buf.position());
+
+        buf.flip();
+        assertSameTransaction(transfer, TransactionRecord.read(buf));
+        assertSameTransaction(deposit, TransactionRecord.read(buf));
+        assertFalse(buf.hasRemaining());
+    }
+
+    @Test
+    void wrapReadsFieldsInPlaceAtAnOffset() {
+        Transaction tx = new Transaction(ActionType.WITHDRAW, 700, UUID.randomUUID(), null);
+        ByteBuffer buf = ByteBuffer.allocate(7 + TransactionRecord.SIZE);
+        buf.position(7);
+        TransactionRecord.write(buf, tx);
+
+        TransactionRecord view = new TransactionRecord().wrap(buf, 7);
+        assertTrue(view.isValid());
+        assertEquals(tx.getId(), view.id());
+        assertEquals(ActionType.WITHDRAW, view.action());
+        assertEquals(700, view.amountMinor());
+        assertEquals(tx.getAccountId(), view.accountId());
+        assertNull(view.targetAccountId());
+    }
+
+    @Test
+    void unknownActionCodeIsInvalidInsteadOfOutOfBounds() {
+        ByteBuffer buf = ByteBuffer.allocate(TransactionRecord.SIZE);
+        TransactionRecord.write(buf, new Transaction(ActionType.DEPOSIT, 5, UUID.randomUUID(), null));
+        buf.put(24, (byte) 100);
+
+        TransactionRecord view = new TransactionRecord().wrap(buf, 0);
+        assertFalse(view.isValid());
+        assertThrows(IllegalArgumentException.class, view::action);
+        buf.put(24, (byte) -1);
+        assertFalse(view.isValid());
+    }
+
+    @Test
+    void transactionIdsAreOrderedByCreationTime() {
+        long before = System.currentTimeMillis();
+        UUID previous = TransactionIds.next(TransactionIds.epochNanos());
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = TransactionIds.next(TransactionIds.epochNanos());
+            assertTrue(next.compareTo(previous) > 0, previous + " then " + next);
+            previous = next;
+        }
+        long millis = TransactionIds.epochMillis(previous);
+        assertTrue(millis >= before - 1_000 && millis <= System.currentTimeMillis() + 1_000, "millis " + millis);
+    }
+
+    private static void assertSameTransaction(Transaction expected, Transaction actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getEpochNanos(), actual.getEpochNanos());
+        assertEquals(expected.getAction(), actual.getAction());
+        assertEquals(expected.getAmountMinor(), actual.getAmountMinor());
+        assertEquals(expected.getAccountId(), actual.getAccountId());
+        assertEquals(expected.getTargetAccountId(), actual.getTargetAccountId());
+    }
+}
@@ -0,0 +1,27 @@
+package com.bank.patterns;
+
+import com.bank.model.ActionType;
+import com.bank.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuditVisitorTest {
+    @Test
+    void countsTransactionsBuiltFromMinorUnitsAndFreezes() {
+        UUID account = UUID.randomUUID();
+        AuditVisitor audit = new AuditVisitor();
+        new Transaction(ActionType.DEPOSIT, 1_050, account, null).accept(audit);
+        new Transaction(ActionType.WITHDRAW, new BigDecimal("2.25"), account, null).accept(audit);
+        new Transaction(ActionType.FREEZE, 0, account, null).accept(audit);
+        new Transaction(ActionType.FREEZE, (BigDecimal) null, account, null).accept(audit);
+
+        assertEquals(new BigDecimal("10.50"), new Transaction(ActionType.DEPOSIT, 1_050, account, null).getAmount());
+        assertEquals(BigDecimal.ZERO, new Transaction(ActionType.FREEZE, 0, account, null).getAmount());
+        assertEquals("Audit Report:\n > Total Deposited: 10.50\n > Total Withdrawn: 2.25\n > Freeze Actions: 2",
+                audit.getReport());
+    }
+}
@@ -0,0 +1,41 @@
+package com.bank.patterns;
+
+import com.bank.model.ActionType;
+import com.bank.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObserverDispatcherTest {
+    @Test
+    void queuedActionRunsAfterEarlierEventsAndBeforeLaterOnes() throws InterruptedException {
+        ObserverDispatcher dispatcher = new ObserverDispatcher(16, BackpressurePolicy.BLOCK);
+        AuditAggregator audit = new AuditAggregator();
+        dispatcher.subscribe(audit);
+        UUID account = UUID.randomUUID();
+        AtomicLong seenAtReset = new AtomicLong(-1);
+        CountDownLatch reset = new CountDownLatch(1);
+
+        for (int i = 0; i < 100; i++)
+            dispatcher.publish(new Transaction(ActionType.DEPOSIT, 1, account, null));
+        assertTrue(dispatcher.runAfterQueued(audit, () -> {
+            seenAtReset.set(audit.getTotalCount());
+            audit.reset();
+            reset.countDown();
+        }));
+        for (int i = 0; i < 5; i++)
+            dispatcher.publish(new Transaction(ActionType.WITHDRAW, 1, account, null));
+        dispatcher.close();
+
+        assertTrue(reset.await(5, TimeUnit.SECONDS));
+        assertEquals(100, seenAtReset.get());
+        assertEquals(0, audit.getCount(ActionType.DEPOSIT));
+        assertEquals(5, audit.getCount(ActionType.WITHDRAW));
+    }
+}
@@ -0,0 +1,101 @@
+package com.bank.persistence;
+
+import com.bank.model.Account;
+import com.bank.model.ActionType;
+import com.bank.model.Transaction;
+import com.bank.model.User;
+import com.bank.service.BankConfig;
+import com.bank.service.BankService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionJournalTest {
+    @TempDir
+    Path dir;
+
+    private BankService open(Path journal) {
+        return BankService.create(new BankConfig().withConsoleAudit(false).withJmx(false).withJournal(journal)
+                .withCheckpointInterval(0));
+    }
+
+    @Test
+    void replayRestoresBalancesAndFrozenFlags() {
+        Path journal = dir.resolve("bank.journal");
+        BankService bank = open(journal);
+        User user = new User("replay");
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Account account = new Account("replay-" + i);
+            account.setBalanceMinor(10_000);
+            user.addAccount(account);
+            accounts.add(account);
+        }
+        bank.registerUser(user);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Account from = accounts.get(i % accounts.size());
+            Account to = accounts.get((i * 3 + 1) % accounts.size());
+            ActionType action = i % 5 == 0 ? ActionType.DEPOSIT : ActionType.TRANSFER;
+            results.add(bank.processTransaction(new Transaction(action, 1 + i % 13, from.getId(),
+                    action == ActionType.TRANSFER ? to.getId() : null)).exceptionally(ex -> null));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+        bank.processTransaction(new Transaction(ActionType.FREEZE, 0, accounts.get(0).getId(), null)).join();
+
+        Map<UUID, Long> expected = new HashMap<>();
+        for (Account account : accounts)
+            expected.put(account.getId(), account.getBalanceMinor());
+        bank.shutdown();
+
+        BankService replayed = open(journal);
+        try {
+            for (Account account : accounts) {
+                Account restored = replayed.getAccount(account.getId());
+                assertNotNull(restored, "account " + account.getId());
+                assertEquals(expected.get(account.getId()), restored.getBalanceMinor());
+                assertEquals(account.isFrozen(), restored.isFrozen());
+            }
+            assertTrue(replayed.getAccount(accounts.get(0).getId()).isFrozen());
+        } finally {
+            replayed.shutdown();
+        }
+    }
+
+    @Test
+    void recoverSkipsRecordsUpToTheCheckpoint() throws Exception {
+        Path journal = dir.resolve("direct.journal");
+        Account account = new Account("direct");
+        account.setBalanceMinor(500);
+        long checkpoint;
+        try (TransactionJournal writer = TransactionJournal.open(journal, 0)) {
+            writer.appendAccount(account).join();
+            writer.append(Transaction.withId(UUID.randomUUID(), ActionType.DEPOSIT, 100, account.getId(), null)).join();
+            checkpoint = writer.getLastLsn();
+            writer.append(Transaction.withId(UUID.randomUUID(), ActionType.WITHDRAW, 30, account.getId(), null)).join();
+        }
+
+        Map<UUID, Account> all = new HashMap<>();
+        TransactionJournal.recover(journal, all, 0);
+        assertEquals(570, all.get(account.getId()).getBalanceMinor());
+
+        Map<UUID, Account> afterCheckpoint = new HashMap<>();
+        Account snapshot = new Account(account.getId(), "direct");
+        snapshot.setBalanceMinor(600);
+        afterCheckpoint.put(snapshot.getId(), snapshot);
+        TransactionJournal.recover(journal, afterCheckpoint, checkpoint);
+        assertEquals(570, snapshot.getBalanceMinor());
+    }
+}
@@ -0,0 +1,74 @@
+package com.bank.puzzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LevelGeneratorTest {
+    private static final long SEED = 42;
+
+    private static List<String> dsl(List<GeneratedLevel> levels) {
+        List<String> result = new ArrayList<>();
+        for (GeneratedLevel level : levels)
+            result.add(level.toDsl());
+        return result;
+    }
+
+    @Test
+    void sameSeedGeneratesTheSameLevels() {
+        List<String> first = dsl(new LevelGenerator(SEED).generate(12));
+        assertEquals(first, dsl(new LevelGenerator(SEED).generate(12)));
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            assertEquals(first, dsl(new LevelGenerator(SEED, LevelGenerator.DEFAULT_MIN_CASTS,
+                    LevelGenerator.DEFAULT_MAX_CASTS, PuzzleSolver.DEFAULT_MAX_BALANCE, LevelGenerator.DEFAULT_MAX_STATES,
+                    single).generate(12)));
+        } finally {
+            single.shutdown();
+        }
+        assertNotEquals(first, dsl(new LevelGenerator(SEED + 1).generate(12)));
+    }
+
+    @Test
+    void generatedLevelsAreSolvedInTheirOptimalCasts() throws IOException {
+        PuzzleSolver solver = new PuzzleSolver();
+        for (GeneratedLevel generated : new LevelGenerator(SEED).generate(12)) {
+            PuzzleLevel level = generated.getLevel();
+            Solution solution = solver.solve(level);
+            assertTrue(solution.isSolved(), generated.toDsl());
+            assertEquals(generated.getOptimalCasts(), solution.getCombos().size(), generated.toDsl());
+            assertTrue(generated.getOptimalCasts() >= LevelGenerator.DEFAULT_MIN_CASTS, generated.toDsl());
+
+            Set<String> ops = new HashSet<>();
+            for (String line : generated.toDsl().split("\\R")) {
+                if (line.startsWith("spell "))
+                    ops.add(line.split("\\s+")[2]);
+            }
+            assertEquals(LevelGenerator.SPELLS, ops.size(), generated.toDsl());
+
+            PuzzleLevel parsed = PuzzleLevels.parse(new BufferedReader(new StringReader(generated.toDsl())), "dsl").get(0);
+            assertEquals(level.getStartBalance(), parsed.getStartBalance());
+            assertEquals(level.getTargetBalance(), parsed.getTargetBalance());
+            assertEquals(level.getSpells(), parsed.getSpells());
+        }
+    }
+
+    @Test
+    void generationGivesUpAfterTheCandidateCap() {
+        LevelGenerator hopeless = new LevelGenerator(SEED, 1, 1, PuzzleSolver.DEFAULT_MAX_BALANCE, 1,
+                ForkJoinPool.commonPool());
+        assertThrows(IllegalStateException.class, () -> hopeless.generate(1));
+    }
+}
@@ -0,0 +1,75 @@
+package com.bank.puzzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleLevelsTest {
+    private static List<PuzzleLevel> parse(String text) throws IOException {
+        return PuzzleLevels.parse(new BufferedReader(new StringReader(text)), "test");
+    }
+
+    private static String errorOf(String text) {
+        return assertThrows(IllegalArgumentException.class, () -> parse(text)).getMessage();
+    }
+
+    @Test
+    void spellsAreCompiledByCombo() throws IOException {
+        List<PuzzleLevel> levels = parse("# comment\n\nlevel 3 10 Small\nspell EEE add 2 | Add 2\nspell WWE mul 3 | Times 3\n");
+
+        assertEquals(1, levels.size());
+        PuzzleLevel level = levels.get(0);
+        assertEquals("Small", level.getName());
+        assertEquals(3, level.getStartBalance());
+        assertEquals(10, level.getTargetBalance());
+        assertEquals(2, level.getMoveCount());
+        assertEquals(5, level.apply(Combo.EEE, 3));
+        assertEquals(9, level.apply(Combo.WWE, 3));
+        assertEquals("Times 3", level.getDescription(Combo.WWE));
+        assertFalse(level.allows(Combo.QQQ));
+    }
+
+    @Test
+    void errorsCarryTheirLine() {
+        assertTrue(errorOf("level 1 2 A\nspell XYZ add 1 | Bad\n").startsWith("test:2: "));
+        assertTrue(errorOf("level 1 2 A\n\nspell QQQ add | Missing\n").startsWith("test:3: "));
+        assertTrue(errorOf("spell QQQ add 1 | Orphan\n").startsWith("test:1: "));
+        assertTrue(errorOf("level 1 2 A\nspell QQQ reverse 1 | Extra\n").startsWith("test:2: "));
+    }
+
+    @Test
+    void appendShiftsByTheDigitsOfItsArgument() {
+        assertEquals(1234, PuzzleLevels.compile("append", "34").applyAsLong(12));
+        assertEquals(125, PuzzleLevels.compile("append", "5").applyAsLong(12));
+        assertEquals(120, PuzzleLevels.compile("append", "0").applyAsLong(12));
+    }
+
+    @Test
+    void appendRejectsSignsAndLeadingZeros() {
+        assertThrows(IllegalArgumentException.class, () -> PuzzleLevels.compile("append", "+1"));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleLevels.compile("append", "-1"));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleLevels.compile("append", "01"));
+    }
+
+    @Test
+    void oversizedAppendIsReportedWithItsLine() {
+        String message = errorOf("level 1 2 Overflow\nspell QQQ append 1234567890123456789 | Append\n");
+        assertTrue(message.startsWith("test:2: "), message);
+    }
+
+    @Test
+    void shippedLevelsLoad() {
+        List<PuzzleLevel> levels = PuzzleLevels.loadResource(PuzzleLevels.RESOURCE);
+        assertEquals(10, levels.size());
+        for (PuzzleLevel level : levels)
+            assertTrue(level.getMoveCount() > 0, level.getName());
+    }
+}
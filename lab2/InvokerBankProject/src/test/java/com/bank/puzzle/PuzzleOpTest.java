@@ -0,0 +1,74 @@
+package com.bank.puzzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PuzzleOpTest {
+    private static final BigInteger MAX = BigInteger.valueOf(Long.MAX_VALUE);
+    private static final BigInteger MIN = BigInteger.valueOf(Long.MIN_VALUE);
+
+    private static BigInteger promote(String op, String arg, BigInteger value) {
+        return PuzzleLevels.compile(op, arg).applyPromoting(value);
+    }
+
+    @Test
+    void resultsThatFitStayExact() {
+        assertEquals(BigInteger.valueOf(1234), promote("append", "34", BigInteger.valueOf(12)));
+        assertEquals(BigInteger.valueOf(-36), promote("mul", "3", BigInteger.valueOf(-12)));
+        assertEquals(MIN, promote("sub", "1", MIN.add(BigInteger.ONE)));
+    }
+
+    @Test
+    void multiplyOverflowsInBothDirections() {
+        assertThrows(ArithmeticException.class, () -> PuzzleLevels.compile("mul", "4").applyAsLong(Long.MAX_VALUE / 2));
+        assertEquals(MAX.shiftRight(1).multiply(BigInteger.valueOf(4)), promote("mul", "4", MAX.shiftRight(1)));
+        assertEquals(MIN.shiftRight(1).multiply(BigInteger.valueOf(4)), promote("mul", "4", MIN.shiftRight(1)));
+        assertEquals(MIN.multiply(MIN), promote("square", null, MIN));
+    }
+
+    @Test
+    void appendOverflowsInBothDirections() {
+        BigInteger large = MAX.divide(BigInteger.TEN);
+        assertEquals(large.multiply(BigInteger.valueOf(100)).add(BigInteger.valueOf(99)), promote("append", "99", large));
+        BigInteger small = MIN.divide(BigInteger.TEN);
+        assertEquals(small.multiply(BigInteger.valueOf(100)).subtract(BigInteger.valueOf(99)),
+                promote("append", "99", small));
+    }
+
+    @Test
+    void addAndSubtractOverflowAtTheLongBounds() {
+        assertEquals(MAX.add(BigInteger.valueOf(5)), promote("add", "5", MAX));
+        assertEquals(MIN.subtract(BigInteger.ONE), promote("sub", "1", MIN));
+        assertEquals(MIN.subtract(BigInteger.valueOf(3)), promote("add", "-3", MIN));
+    }
+
+    @Test
+    void reverseThatNoLongerFitsIsPromoted() {
+        assertEquals(new BigInteger("9999999999999999991"), promote("reverse", null, new BigInteger("1999999999999999999")));
+        assertEquals(new BigInteger("-9999999999999999991"),
+                promote("reverse", null, new BigInteger("-1999999999999999999")));
+    }
+
+    @Test
+    void valuesBeyondALongStayOnTheWidePath() {
+        BigInteger huge = BigInteger.TWO.pow(80);
+        assertEquals(huge.add(BigInteger.ONE), promote("add", "1", huge));
+        assertEquals(huge.negate().multiply(BigInteger.TWO), promote("mul", "2", huge.negate()));
+        // 2^80 = 1208925819614629174706176
+        assertEquals(BigInteger.valueOf(112), promote("digitsum", null, huge));
+    }
+
+    @Test
+    void levelsApplyBalancesBeyondALong() {
+        PuzzleLevel level = new PuzzleLevel("wide", 1, 2)
+                .spell(Combo.WWE, "Multiply 10", PuzzleLevels.compile("mul", "10"));
+        BigInteger balance = BigInteger.ONE;
+        for (int i = 0; i < 25; i++)
+            balance = level.apply(Combo.WWE, balance);
+        assertEquals(BigInteger.TEN.pow(25), balance);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bank.puzzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleSolverTest {
+    private static final Map<String, Integer> SHORTEST = Map.of(
+            "1. Mirror Start", 5,
+            "2. Digital Diet", 3,
+            "3. Sticky One", 3,
+            "4. Butterfly", 6,
+            "5. Collapse", 3,
+            "6. Step Back", 5,
+            "7. Binary Hacker", 9,
+            "8. Truncation", 4,
+            "9. Odd Path", 4,
+            "10. Sum Power", 4);
+
+    private final PuzzleSolver solver = new PuzzleSolver();
+
+    @Test
+    void everyShippedLevelHasItsKnownShortestSolution() {
+        List<PuzzleLevel> levels = PuzzleLevels.all();
+        assertEquals(SHORTEST.size(), levels.size());
+        for (PuzzleLevel level : levels) {
+            Solution solution = solver.solve(level);
+            assertTrue(solution.isSolved(), solution.toString());
+            assertEquals(SHORTEST.get(level.getName()), solution.getCombos().size(), solution.toString());
+            assertEquals(level.getTargetBalance(), replay(level, solution.getCombos()), solution.toString());
+        }
+    }
+
+    @Test
+    void unreachableTargetIsReportedAsExhausted() {
+        PuzzleLevel level = new PuzzleLevel("even only", 2, 7)
+                .spell(Combo.EEE, "Add 2", PuzzleLevels.compile("add", "2"))
+                .spell(Combo.WWE, "Multiply 2", PuzzleLevels.compile("mul", "2"));
+
+        Solution solution = new PuzzleSolver(1_000, PuzzleSolver.DEFAULT_MAX_STATES, ForkJoinPool.commonPool()).solve(level);
+
+        assertFalse(solution.isSolved());
+        assertTrue(solution.isExhausted(), solution.toString());
+    }
+
+    private static long replay(PuzzleLevel level, List<String> combos) {
+        long balance = level.getStartBalance();
+        for (String combo : combos)
+            balance = level.apply(Combo.valueOf(combo), balance);
+        return balance;
+    }
+}
@@ -0,0 +1,50 @@
+package com.bank.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlTest {
+    @Test
+    void perAccountLimitIsEnforcedAndReleased() {
+        AdmissionControl admission = new AdmissionControl(100, 2, 0);
+        UUID account = UUID.randomUUID();
+
+        assertTrue(admission.tryAdmit(account));
+        assertTrue(admission.tryAdmit(account));
+        assertFalse(admission.tryAdmit(account));
+        assertEquals(2, admission.pending());
+
+        admission.release(account);
+        assertTrue(admission.tryAdmit(account));
+    }
+
+    @Test
+    void batchTakesASharedStripeOnce() {
+        AdmissionControl admission = new AdmissionControl(100, 1, 0);
+        UUID first = UUID.randomUUID();
+        UUID second;
+        do {
+            second = UUID.randomUUID();
+        } while (AdmissionControl.stripeOf(second) != AdmissionControl.stripeOf(first));
+
+        assertTrue(admission.tryAdmit(2, List.of(first, second)));
+        assertFalse(admission.tryAdmit(first));
+        admission.release(2, List.of(first, second));
+        assertTrue(admission.tryAdmit(second));
+        assertEquals(1, admission.pending());
+    }
+
+    @Test
+    void drainClosesAdmission() {
+        AdmissionControl admission = new AdmissionControl(10, 0, 0);
+        assertTrue(admission.drain(1, TimeUnit.SECONDS));
+        assertFalse(admission.tryAdmit(UUID.randomUUID()));
+    }
+}
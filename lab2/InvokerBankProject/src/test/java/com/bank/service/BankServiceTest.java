@@ -0,0 +1,209 @@
+package com.bank.service;
+
+import com.bank.model.Account;
+import com.bank.model.ActionType;
+import com.bank.model.FailureReason;
+import com.bank.model.Transaction;
+import com.bank.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BankServiceTest {
+    @TempDir
+    Path dir;
+
+    private BankService bank;
+
+    @AfterEach
+    void shutdown() {
+        if (bank != null)
+            bank.shutdown();
+    }
+
+    private static BankConfig config() {
+        return new BankConfig().withConsoleAudit(false).withJmx(false).withShardCount(4).withWorkerThreads(8);
+    }
+
+    private Account open(long balanceMinor) {
+        Account account = new Account("test");
+        account.setBalanceMinor(balanceMinor);
+        User user = new User("test");
+        user.addAccount(account);
+        bank.registerUser(user);
+        return account;
+    }
+
+    private void runOpposingTransfers(Account a, Account b) {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            List<CompletableFuture<Void>> results = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                boolean forward = (i & 1) == 0;
+                results.add(bank.processTransaction(new Transaction(ActionType.TRANSFER, 1 + i % 7,
+                        forward ? a.getId() : b.getId(), forward ? b.getId() : a.getId())));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+        });
+        assertEquals(2_000_000, a.getBalanceMinor() + b.getBalanceMinor());
+    }
+
+    @Test
+    void opposingTransfersDoNotDeadlockOnStripedLocks() {
+        bank = BankService.create(config().withEngineMode(EngineMode.LOCKING).withLockStripes(16));
+        runOpposingTransfers(open(1_000_000), open(1_000_000));
+    }
+
+    @Test
+    void selfTransfersTakeTheStripeOnce() {
+        bank = BankService.create(config().withEngineMode(EngineMode.LOCKING));
+        Account a = open(1_000);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            List<CompletableFuture<Void>> results = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++)
+                results.add(bank.processTransaction(new Transaction(ActionType.TRANSFER, 10, a.getId(), a.getId())));
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+        });
+        assertEquals(1_000, a.getBalanceMinor());
+    }
+
+    @Test
+    void opposingTransfersDoNotDeadlockAcrossShards() {
+        bank = BankService.create(config().withEngineMode(EngineMode.SHARDED));
+        runOpposingTransfers(open(1_000_000), open(1_000_000));
+    }
+
+    @ParameterizedTest
+    @EnumSource(EngineMode.class)
+    void missingAccountIdFailsTheFuture(EngineMode mode) {
+        bank = BankService.create(config().withEngineMode(mode));
+        Account target = open(0);
+
+        CompletableFuture<Void> result = bank.processTransaction(
+                new Transaction(ActionType.TRANSFER, 10, null, target.getId()));
+
+        CompletionException error = assertThrows(CompletionException.class, result::join);
+        assertEquals(FailureReason.ACCOUNT_NOT_FOUND, FailureReason.of(error));
+        assertEquals(0, target.getBalanceMinor());
+    }
+
+    @ParameterizedTest
+    @EnumSource(EngineMode.class)
+    void batchKeepsPerAccountOrderAcrossShards(EngineMode mode) {
+        bank = BankService.create(config().withEngineMode(mode));
+        Account a = open(100);
+        Account b = open(0);
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            batch.add(new Transaction(ActionType.TRANSFER, 100, a.getId(), b.getId()));
+            batch.add(new Transaction(ActionType.WITHDRAW, 100, b.getId(), null));
+            batch.add(new Transaction(ActionType.DEPOSIT, 100, a.getId(), null));
+        }
+
+        bank.processBatch(batch).join().forEach(r -> assertEquals(true, r.isSuccess(), r.toString()));
+        assertEquals(100, a.getBalanceMinor());
+        assertEquals(0, b.getBalanceMinor());
+    }
+
+    @Test
+    void restartLoadsTheSnapshotAndReplaysTheJournalTail() {
+        BankConfig durable = config().withJournal(dir.resolve("bank.journal")).withCheckpointInterval(0);
+        bank = BankService.create(durable);
+        Account a = open(1_000);
+        Account b = open(0);
+        bank.processTransaction(new Transaction(ActionType.TRANSFER, 300, a.getId(), b.getId())).join();
+        bank.checkpoint();
+        bank.processTransaction(new Transaction(ActionType.TRANSFER, 50, b.getId(), a.getId())).join();
+        bank.processTransaction(new Transaction(ActionType.FREEZE, 0, b.getId(), null)).join();
+        bank.shutdown();
+
+        assertTrue(Files.exists(durable.getSnapshotPath()));
+        bank = BankService.create(durable);
+        assertEquals(750, bank.getAccount(a.getId()).getBalanceMinor());
+        assertEquals(250, bank.getAccount(b.getId()).getBalanceMinor());
+        assertTrue(bank.getAccount(b.getId()).isFrozen());
+    }
+
+    @Test
+    void crossShardTransfersInFlightAtTheCutAreRecovered() {
+        BankConfig durable = config().withEngineMode(EngineMode.SHARDED).withJournal(dir.resolve("cut.journal"))
+                .withCheckpointInterval(0);
+        bank = BankService.create(durable);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 16; i++)
+            accounts.add(open(100_000));
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 1_000; i++) {
+                Account from = accounts.get(i % accounts.size());
+                Account to = accounts.get((i * 7 + round + 1) % accounts.size());
+                results.add(bank.processTransaction(new Transaction(ActionType.TRANSFER, 1 + i % 11, from.getId(),
+                        to.getId())).exceptionally(ex -> null));
+            }
+            bank.checkpoint();
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+
+        Map<UUID, Long> expected = new HashMap<>();
+        for (Account account : accounts)
+            expected.put(account.getId(), account.getBalanceMinor());
+        bank.shutdown();
+
+        bank = BankService.create(durable);
+        long total = 0;
+        for (Account account : accounts) {
+            Account restored = bank.getAccount(account.getId());
+            assertNotNull(restored);
+            assertEquals(expected.get(account.getId()), restored.getBalanceMinor());
+            total += restored.getBalanceMinor();
+        }
+        assertEquals(16 * 100_000, total);
+    }
+
+    @Test
+    void retriedTransactionIsAppliedOnce() {
+        bank = BankService.create(config().withIdempotency(1024, 60));
+        Account account = open(0);
+        Transaction deposit = Transaction.withId(UUID.randomUUID(), ActionType.DEPOSIT, 250, account.getId(), null);
+
+        bank.processTransaction(deposit).join();
+        bank.processTransaction(deposit).join();
+        bank.processTransaction(Transaction.withId(deposit.getId(), ActionType.DEPOSIT, 250, account.getId(), null))
+                .join();
+
+        assertEquals(250, account.getBalanceMinor());
+        assertEquals(2, bank.getMetrics().getDuplicateCount());
+    }
+
+    @Test
+    void retriedFailureReportsTheOriginalOutcome() {
+        bank = BankService.create(config().withIdempotency(1024, 60));
+        Account account = open(100);
+        Transaction withdraw = Transaction.withId(UUID.randomUUID(), ActionType.WITHDRAW, 500, account.getId(), null);
+
+        assertThrows(CompletionException.class, () -> bank.processTransaction(withdraw).join());
+        account.setBalanceMinor(1_000);
+        assertThrows(CompletionException.class, () -> bank.processTransaction(withdraw).join());
+        assertEquals(1_000, account.getBalanceMinor());
+    }
+}